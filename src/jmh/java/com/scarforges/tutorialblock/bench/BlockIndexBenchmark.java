@@ -0,0 +1,82 @@
+/*
+ * ============================================================
+ * BENCHMARK: TutorialBlocks ("que hay cerca de mi")
+ * ============================================================
+ *
+ * "blocks" bloques repartidos en un mundo de 20000x20000 y una
+ * consulta de radio 128 alrededor de un punto:
+ *   - naiveScan: comprobar la distancia a todos los bloques
+ *   - indexed:   BlockIndex.forEachInRadius()
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.bench;
+
+import com.scarforges.tutorialblock.registry.BlockIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class BlockIndexBenchmark {
+
+    private static final int HALF_WORLD = 10_000;
+    private static final int RADIUS = 128;
+
+    @Param({"1000", "100000"})
+    public int blocks;
+
+    int[] xs;
+    int[] ys;
+    int[] zs;
+    BlockIndex<Object> index;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(5);
+        xs = new int[blocks];
+        ys = new int[blocks];
+        zs = new int[blocks];
+        index = new BlockIndex<>();
+        Object marker = new Object();
+        for (int i = 0; i < blocks; i++) {
+            xs[i] = random.nextInt(-HALF_WORLD, HALF_WORLD);
+            ys[i] = random.nextInt(0, 320);
+            zs[i] = random.nextInt(-HALF_WORLD, HALF_WORLD);
+            index.put(xs[i], ys[i], zs[i], marker);
+        }
+    }
+
+    @Benchmark
+    public int naiveScan() {
+        long radiusSq = (long) RADIUS * RADIUS;
+        int found = 0;
+        for (int i = 0; i < blocks; i++) {
+            long dx = xs[i];
+            long dy = ys[i] - 64;
+            long dz = zs[i];
+            if (dx * dx + dy * dy + dz * dz <= radiusSq) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int indexed() {
+        int[] found = new int[1];
+        index.forEachInRadius(0, 64, 0, RADIUS, (x, y, z, value) -> found[0]++);
+        return found[0];
+    }
+}
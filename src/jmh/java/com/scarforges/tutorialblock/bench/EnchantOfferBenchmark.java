@@ -0,0 +1,86 @@
+/*
+ * ============================================================
+ * BENCHMARK: EnchantingEngine (muestreo de ofertas)
+ * ============================================================
+ *
+ * aliasSample vs naiveScan: elegir una entrada de "entries" pesos.
+ *   - naiveScan: sumar pesos y recorrer hasta pasar el aleatorio, O(N)
+ *   - aliasSample: AliasTable precalculada, O(1)
+ *
+ * offers: lo que hace el panel en cada refresco (3 ofertas distintas
+ * para un arma de hierro con la semilla de un jugador).
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.bench;
+
+import com.scarforges.tutorialblock.enchant.AliasTable;
+import com.scarforges.tutorialblock.enchant.EnchantOffer;
+import com.scarforges.tutorialblock.enchant.EnchantingEngine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class EnchantOfferBenchmark {
+
+    @Param({"12", "100", "1000"})
+    public int entries;
+
+    double[] weights;
+    AliasTable alias;
+    EnchantingEngine engine;
+    SplittableRandom random;
+    long playerSeed;
+
+    @Setup
+    public void setup() {
+        SplittableRandom init = new SplittableRandom(7);
+        weights = new double[entries];
+        for (int i = 0; i < entries; i++) {
+            weights[i] = 1 + init.nextInt(10);
+        }
+        alias = new AliasTable(weights);
+        engine = EnchantingEngine.prepare();
+        random = new SplittableRandom(42);
+        playerSeed = 0x5EEDL;
+    }
+
+    @Benchmark
+    public int naiveScan() {
+        double total = 0;
+        for (double w : weights) {
+            total += w;
+        }
+        double r = random.nextDouble() * total;
+        for (int i = 0; i < weights.length; i++) {
+            r -= weights[i];
+            if (r < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    @Benchmark
+    public int aliasSample() {
+        return alias.sample(random);
+    }
+
+    @Benchmark
+    public List<EnchantOffer> offers() {
+        return engine.offers("Weapon_Sword_Iron", playerSeed++, 3);
+    }
+}
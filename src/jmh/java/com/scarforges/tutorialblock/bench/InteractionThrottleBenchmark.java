@@ -0,0 +1,52 @@
+/*
+ * ============================================================
+ * BENCHMARK: EnchantTableInteraction (anti-spam)
+ * ============================================================
+ *
+ * Coste de InteractionThrottle.tryAcquire(), que es lo unico que
+ * se ejecuta en una apertura repetida. "players" jugadores pulsan
+ * F sobre "players" bloques distintos en bucle.
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.bench;
+
+import com.scarforges.tutorialblock.interaction.InteractionThrottle;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class InteractionThrottleBenchmark {
+
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Param({"100", "5000"})
+    public int players;
+
+    InteractionThrottle throttle;
+    int next;
+
+    @Setup
+    public void setup() {
+        throttle = new InteractionThrottle();
+        next = 0;
+    }
+
+    @Benchmark
+    public boolean repeatedOpen() {
+        int player = next;
+        next = (next + 1) % players;
+        return throttle.tryAcquire(player, player, 64, -player, System.nanoTime(), WINDOW_NANOS);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * ============================================================
+ * BENCHMARK: Lo que EnchantTablePanel.build() escribe en la pagina
+ * ============================================================
+ *
+ * Con las clases reales del jar de Hytale (UICommandBuilder,
+ * UIEventBuilder, EventData). El panel entero no se construye: su
+ * build() necesita un PlayerRef y un Store del servidor. Se mide
+ * todo lo demas, que es lo que cuesta en cada apertura:
+ *
+ *   - perOpenBindings: el build() antiguo, EventData nuevos en
+ *                      cada apertura
+ *   - sharedTemplate:  solo UITemplate.apply()
+ *   - panelLayout:     EnchantTablePanel.layout(), la parte de
+ *                      build() sin entidad: plantilla + ofertas
+ *                      (EnchantingEngine) + UIUpdateBuffer
+ *   - directUpdates / bufferedUpdates: N clicks en un tick, con
+ *                      un sendUpdate por click o con UIUpdateBuffer
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.bench;
+
+import com.hypixel.hytale.protocol.packets.interface_.CustomUIEventBindingType;
+import com.hypixel.hytale.server.core.ui.builder.EventData;
+import com.hypixel.hytale.server.core.ui.builder.UICommandBuilder;
+import com.hypixel.hytale.server.core.ui.builder.UIEventBuilder;
+import com.scarforges.tutorialblock.enchant.EnchantingEngine;
+import com.scarforges.tutorialblock.ui.EnchantTablePanel;
+import com.scarforges.tutorialblock.ui.UITemplate;
+import com.scarforges.tutorialblock.ui.UIUpdateBuffer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class PanelBuildBenchmark {
+
+    private static final String UI_PATH = "Pages/EnchantTable/EnchantTablePanel.ui";
+
+    @Param({"10"})
+    public int clicksPerTick;
+
+    // Un arma (3 ofertas) y un item sin categoria ("no encantable")
+    @Param({"Weapon_Sword_Iron", "Rock_Stone"})
+    public String itemId;
+
+    UITemplate template;
+    UIUpdateBuffer buffer;
+
+    @Setup
+    public void setup() {
+        template = EnchantTablePanel.prepareTemplate();
+        EnchantingEngine.prepare();
+        buffer = new UIUpdateBuffer();
+    }
+
+    @Benchmark
+    public void perOpenBindings(Blackhole bh) {
+        UICommandBuilder ui = new UICommandBuilder();
+        UIEventBuilder events = new UIEventBuilder();
+        ui.append(UI_PATH);
+        events.addEventBinding(CustomUIEventBindingType.Activating, "#BtnHello",
+            new EventData().append("ActionId", "HELLO"));
+        events.addEventBinding(CustomUIEventBindingType.Activating, "#CloseButton",
+            new EventData().append("ActionId", "CLOSE"));
+        bh.consume(ui);
+        bh.consume(events);
+    }
+
+    @Benchmark
+    public void sharedTemplate(Blackhole bh) {
+        UICommandBuilder ui = new UICommandBuilder();
+        UIEventBuilder events = new UIEventBuilder();
+        template.apply(ui, events);
+        bh.consume(ui);
+        bh.consume(events);
+    }
+
+    @Benchmark
+    public void panelLayout(Blackhole bh) {
+        UICommandBuilder ui = new UICommandBuilder();
+        UIEventBuilder events = new UIEventBuilder();
+        EnchantTablePanel.layout(ui, events, buffer, itemId, 0x5EEDL);
+        bh.consume(ui);
+        bh.consume(events);
+    }
+
+    @Benchmark
+    public void directUpdates(Blackhole bh) {
+        for (int i = 1; i <= clicksPerTick; i++) {
+            UICommandBuilder ui = new UICommandBuilder();
+            ui.set("#StatusText.Text", "Has pulsado " + i + " vez/veces!");
+            bh.consume(ui);
+        }
+    }
+
+    @Benchmark
+    public void bufferedUpdates(Blackhole bh) {
+        buffer.reset();
+        for (int i = 1; i <= clicksPerTick; i++) {
+            buffer.set("#StatusText.Text", "Has pulsado " + i + " vez/veces!");
+        }
+        UICommandBuilder ui = new UICommandBuilder();
+        buffer.drain(ui::set);
+        bh.consume(ui);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * ============================================================
+ * BENCHMARK: Decodificar un evento de EnchantTablePanel
+ * ============================================================
+ *
+ *   - gsonDecode:  lo que hacia antes el panel en cada click
+ *                  (JsonParser.parseString + switch de Strings)
+ *   - codecDecode: lo que pasa ahora antes de llegar al
+ *                  handleDataEvent() tipado: EventActionData.CODEC
+ *                  (el real, del jar de Hytale) lee el payload y su
+ *                  setter lo convierte en EnchantAction; + switch
+ *                  del enum
+ *
+ * Ambos reciben el mismo payload; "unknown" mide el rechazo de
+ * acciones desconocidas. No incluye lo que hace el handler con la
+ * accion (sesion, mensajes, UI): eso necesita un jugador real.
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.bench;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.hypixel.hytale.codec.ExtraInfo;
+import com.hypixel.hytale.codec.util.RawJsonReader;
+import com.scarforges.tutorialblock.ui.EnchantAction;
+import com.scarforges.tutorialblock.ui.EventActionData;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class PanelEventBenchmark {
+
+    @Param({"HELLO", "CLOSE", "unknown"})
+    public String actionId;
+
+    String rawData;
+
+    @Setup
+    public void setup() {
+        rawData = "{\"ActionId\":\"" + actionId + "\"}";
+    }
+
+    @Benchmark
+    public int gsonDecode() {
+        JsonObject json = JsonParser.parseString(rawData).getAsJsonObject();
+        JsonElement element = json.get("ActionId");
+        if (element == null) {
+            return -1;
+        }
+        switch (element.getAsString()) {
+            case "HELLO":
+                return 1;
+            case "CLOSE":
+                return 2;
+            default:
+                return 0;
+        }
+    }
+
+    @Benchmark
+    public int codecDecode() throws IOException {
+        EventActionData data = EventActionData.CODEC.decodeJson(
+            new RawJsonReader(rawData.toCharArray()), ExtraInfo.THREAD_LOCAL.get());
+        EnchantAction action = data.action;
+        if (action == null) {
+            return 0;
+        }
+        switch (action) {
+            case HELLO:
+                return 1;
+            case CLOSE:
+                return 2;
+            default:
+                return 0;
+        }
+    }
+}
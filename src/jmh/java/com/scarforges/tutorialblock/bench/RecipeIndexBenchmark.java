@@ -0,0 +1,94 @@
+/*
+ * ============================================================
+ * BENCHMARK: CraftBenchRecipes ("craftable now")
+ * ============================================================
+ *
+ * Un pack de "recipes" recetas sinteticas (2-4 ingredientes de un
+ * catalogo de 500 items) y un inventario de 30 items distintos.
+ *   - naiveScan: comprobar todas las recetas contra el inventario
+ *   - indexed:   RecipeIndex.craftable()
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.bench;
+
+import com.scarforges.tutorialblock.crafting.RecipeIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class RecipeIndexBenchmark {
+
+    private static final int ITEMS = 500;
+    private static final int INVENTORY_ITEMS = 30;
+
+    @Param({"100", "5000"})
+    public int recipes;
+
+    List<RecipeIndex.Recipe> all;
+    RecipeIndex index;
+    Map<String, Integer> inventory;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(3);
+        all = new ArrayList<>(recipes);
+        index = new RecipeIndex();
+        for (int r = 0; r < recipes; r++) {
+            Set<String> ingredients = new LinkedHashSet<>();
+            int wanted = 2 + random.nextInt(3);
+            while (ingredients.size() < wanted) {
+                ingredients.add("Item_" + random.nextInt(ITEMS));
+            }
+            int[] quantities = new int[wanted];
+            for (int i = 0; i < wanted; i++) {
+                quantities[i] = 1 + random.nextInt(4);
+            }
+            RecipeIndex.Recipe recipe = new RecipeIndex.Recipe(
+                "Recipe_" + r, ingredients.toArray(new String[0]), quantities);
+            all.add(recipe);
+            index.put(recipe);
+        }
+
+        inventory = new HashMap<>();
+        while (inventory.size() < INVENTORY_ITEMS) {
+            inventory.put("Item_" + random.nextInt(ITEMS), 1 + random.nextInt(64));
+        }
+    }
+
+    @Benchmark
+    public List<String> naiveScan() {
+        List<String> result = new ArrayList<>();
+        for (RecipeIndex.Recipe recipe : all) {
+            if (recipe.satisfiedBy(inventory)) {
+                result.add(recipe.id());
+            }
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    @Benchmark
+    public List<String> indexed() {
+        return index.craftable(inventory, Integer.MAX_VALUE).ids();
+    }
+}
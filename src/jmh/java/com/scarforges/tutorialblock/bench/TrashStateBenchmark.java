@@ -0,0 +1,177 @@
+/*
+ * ============================================================
+ * BENCHMARK (MODELO): Papelera por polling vs por eventos
+ * ============================================================
+ *
+ * NO ejecuta TutorialTrashState (necesita el servidor: contenedor,
+ * ventanas, chunk). Compara los modelos de bench/model:
+ *   - PollingTrashModel: lo que hacia el codigo antiguo, que ya no
+ *     existe en el plugin
+ *   - EventTrashModel:   el flujo actual de TutorialTrashState con
+ *     el TrashSlots real del plugin
+ * Los numeros sirven para comparar los dos modelos entre si, no
+ * como coste absoluto de una papelera en el servidor.
+ *
+ * 1) Un tick con N papeleras, donde "activeRatio" de ellas recibe
+ *    un deposito (un evento de cambio) y se cierra en ese tick:
+ *    - pollingTick:     tick() en CADA bloque y los eventos
+ *      procesados recorriendo toda la capacidad
+ *    - eventDrivenTick: solo se tocan los bloques con eventos:
+ *      update() del slot cambiado y, al cerrar, tally() + vaciar
+ *
+ * 2) Un evento de cambio (onItemChange), con distintas capacidades:
+ *    - scanItemChange:     wasSlotModified(i) para todos los slots
+ *    - modifiedItemChange: solo los slots de la transaccion
+ *
+ * 3) Contar y vaciar al cerrar, con distintas capacidades:
+ *    - scanCountAndClear:    recorrer todos los slots (antiguo)
+ *    - trackedCountAndClear: TrashSlots (actual, con depositantes)
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.bench;
+
+import com.scarforges.tutorialblock.bench.model.EventTrashModel;
+import com.scarforges.tutorialblock.bench.model.PollingTrashModel;
+import com.scarforges.tutorialblock.bench.model.SlotTransactionModel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TrashStateBenchmark {
+
+    private static final String PLAYER = "player";
+
+    @State(Scope.Thread)
+    public static class Blocks {
+
+        private static final int CAPACITY = 27;
+
+        @Param({"1000", "10000"})
+        public int blocks;
+
+        // Fraccion de papeleras con un deposito + cierre en este tick
+        @Param({"0.0", "0.01"})
+        public double activeRatio;
+
+        PollingTrashModel[] polling;
+        EventTrashModel[] events;
+        int active;
+        Object stack = new Object();
+        SlotTransactionModel deposit = new SlotTransactionModel((short) 3);
+
+        @Setup
+        public void setup() {
+            polling = new PollingTrashModel[blocks];
+            events = new EventTrashModel[blocks];
+            active = (int) (blocks * activeRatio);
+            for (int i = 0; i < blocks; i++) {
+                polling[i] = new PollingTrashModel(CAPACITY);
+                events[i] = new EventTrashModel(CAPACITY);
+                if (i < active) {
+                    polling[i].windows.put(UUID.randomUUID(), new Object());
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public int pollingTick(Blocks state) {
+        int destroyed = 0;
+        for (PollingTrashModel block : state.polling) {
+            block.tick();
+        }
+        for (int i = 0; i < state.active; i++) {
+            PollingTrashModel block = state.polling[i];
+            block.slots[3] = state.stack;
+            block.onItemChange(state.deposit);
+            destroyed += block.close();
+        }
+        return destroyed;
+    }
+
+    @Benchmark
+    public int eventDrivenTick(Blocks state) {
+        int destroyed = 0;
+        for (int i = 0; i < state.active; i++) {
+            EventTrashModel block = state.events[i];
+            block.slots[3] = state.stack;
+            block.onItemChange(state.deposit, PLAYER);
+            destroyed += block.close();
+        }
+        return destroyed;
+    }
+
+    @State(Scope.Thread)
+    public static class Container {
+
+        @Param({"27", "270", "2700"})
+        public int capacity;
+
+        // Stacks que el jugador dejo dentro antes de cerrar
+        @Param({"5"})
+        public int filled;
+
+        PollingTrashModel scan;
+        EventTrashModel tracked;
+        Object stack = new Object();
+        short[] filledSlots;
+        SlotTransactionModel change;
+
+        @Setup
+        public void setup() {
+            scan = new PollingTrashModel(capacity);
+            tracked = new EventTrashModel(capacity);
+            filledSlots = new short[filled];
+            int step = Math.max(1, capacity / filled);
+            for (int i = 0; i < filled; i++) {
+                filledSlots[i] = (short) Math.min(capacity - 1, i * step);
+            }
+            change = new SlotTransactionModel(filledSlots[filled / 2]);
+            fill();
+        }
+
+        void fill() {
+            for (short slot : filledSlots) {
+                scan.slots[slot] = stack;
+                tracked.slots[slot] = stack;
+                tracked.tracked.update(slot, true, PLAYER);
+            }
+        }
+    }
+
+    @Benchmark
+    public Object scanItemChange(Container c) {
+        c.scan.onItemChange(c.change);
+        return c.scan.occupied;
+    }
+
+    @Benchmark
+    public Object modifiedItemChange(Container c) {
+        c.tracked.onItemChange(c.change, PLAYER);
+        return c.tracked.tracked;
+    }
+
+    @Benchmark
+    public int scanCountAndClear(Container c) {
+        c.fill();
+        return c.scan.close();
+    }
+
+    @Benchmark
+    public int trackedCountAndClear(Container c) {
+        c.fill();
+        return c.tracked.close();
+    }
+}
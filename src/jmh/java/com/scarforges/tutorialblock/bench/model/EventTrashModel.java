@@ -0,0 +1,71 @@
+/*
+ * ============================================================
+ * MODELO (benchmarks): EventTrashModel - La papelera actual
+ * ============================================================
+ *
+ * TutorialTrashState sin las clases de Hytale: el contenedor es un
+ * Object[] y los jugadores son String, pero la contabilidad es el
+ * TrashSlots REAL y se llama en el mismo orden que el servidor:
+ *
+ *   onItemChange -> update() de los slots de la transaccion
+ *   al cerrar    -> count(), tally(), un resumen por depositante
+ *                   (y uno para los stacks sin depositante),
+ *                   owner() + vaciar cada slot ocupado, clearAll()
+ *
+ * Lo que no modela: los mensajes, el diario y SessionStore.
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.bench.model;
+
+import com.scarforges.tutorialblock.blockstate.TrashSlots;
+
+public final class EventTrashModel {
+
+    public final Object[] slots;
+    public final TrashSlots<String> tracked;
+
+    // Resumenes que habria enviado el ultimo close() y el ultimo dueño leido
+    private int summaries;
+    private String lastOwner;
+
+    public EventTrashModel(int capacity) {
+        slots = new Object[capacity];
+        tracked = new TrashSlots<>(capacity);
+    }
+
+    public void onItemChange(SlotTransactionModel transaction, String depositor) {
+        for (short slot : transaction.slots()) {
+            tracked.update(slot, slots[slot] != null, depositor);
+        }
+    }
+
+    // Devuelve los stacks destruidos
+    public int close() {
+        summaries = 0;
+        int count = tracked.count();
+        if (count > 0) {
+            int[] perDepositor = tracked.tally();
+            for (int stacks : perDepositor) {
+                if (stacks > 0) {
+                    summaries++;
+                }
+            }
+            for (int slot = tracked.nextOccupied(0); slot >= 0; slot = tracked.nextOccupied(slot + 1)) {
+                // El servidor apunta el stack en el diario a nombre de su dueño
+                lastOwner = tracked.owner(slot);
+                slots[slot] = null;
+            }
+        }
+        tracked.clearAll();
+        return count;
+    }
+
+    public int summaries() {
+        return summaries;
+    }
+
+    public String lastOwner() {
+        return lastOwner;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * ============================================================
+ * MODELO (benchmarks): PollingTrashModel - La papelera antigua
+ * ============================================================
+ *
+ * El codigo de polling ya no existe en el plugin: esto es lo minimo
+ * que hacia por bloque para poder compararlo. tick() en CADA papelera
+ * (getWindows(), recorrer ventanas, wasOpen/isOpen), cada evento de
+ * cambio recorria toda la capacidad y cerrar vaciaba slot a slot.
+ * Las ventanas y los stacks son Object, no clases de Hytale.
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.bench.model;
+
+import com.scarforges.tutorialblock.blockstate.OccupiedSlots;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class PollingTrashModel {
+
+    public final Map<UUID, Object> windows = new ConcurrentHashMap<>();
+    public final Object[] slots;
+    public final OccupiedSlots occupied;
+    private Object lastPlayer;
+    private boolean wasOpen;
+
+    public PollingTrashModel(int capacity) {
+        slots = new Object[capacity];
+        occupied = new OccupiedSlots(capacity);
+    }
+
+    public void tick() {
+        boolean isOpen = !windows.isEmpty();
+        if (isOpen) {
+            for (Object window : windows.values()) {
+                lastPlayer = window;
+            }
+        }
+        if (wasOpen && !isOpen) {
+            lastPlayer = null;
+        }
+        wasOpen = isOpen;
+    }
+
+    public void onItemChange(SlotTransactionModel transaction) {
+        for (short i = 0; i < slots.length; i++) {
+            if (transaction.wasSlotModified(i)) {
+                occupied.set(i, slots[i] != null);
+            }
+        }
+    }
+
+    public int close() {
+        int count = 0;
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] != null) {
+                count++;
+                slots[i] = null;
+            }
+        }
+        occupied.clearAll();
+        return count;
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * ============================================================
+ * MODELO (benchmarks): SlotTransactionModel
+ * ============================================================
+ *
+ * NO es una clase de Hytale: reproduce lo que TutorialTrashState
+ * le pide a una transaccion del contenedor (que slots cambio), con
+ * la misma busqueda lineal que ListTransaction.wasSlotModified().
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.bench.model;
+
+public final class SlotTransactionModel {
+
+    private final short[] slots;
+
+    public SlotTransactionModel(short... slots) {
+        this.slots = slots;
+    }
+
+    // Los slots que toca (lo que TutorialTrashState lee con forEachModifiedSlot)
+    public short[] slots() {
+        return slots;
+    }
+
+    public boolean wasSlotModified(short slot) {
+        for (short s : slots) {
+            if (s == slot) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * ============================================================
+ * LOAD SIMULATOR: Miles de bloques y jugadores sin servidor
+ * ============================================================
+ *
+ * Complementa a los benchmarks JMH: en vez de medir una operacion
+ * aislada, simula un servidor entero tick a tick (50 ms/tick):
+ *
+ *   - N papeleras, cada una con su contenedor y TrashSlots (el
+ *     mismo que TutorialTrashState: slots ocupados + depositante)
+ *   - M jugadores que abren papeleras, las llenan y las cierran
+ *   - Cada jugador con un Enchant Table abierto pulsa botones a
+ *     "clicksPerSecond" (decodificado con EnchantAction, pasando
+ *     por el anti-spam y el UIUpdateBuffer, flush una vez por tick)
+ *
+ * Solo se ejecuta el codigo propio del plugin (lo que no depende
+ * de Hytale); las ventanas y los paquetes son contadores.
+ *
+ * Informa: percentiles de tiempo por tick, ticks fuera de
+ * presupuesto, mensajes enviados y memoria por bloque.
+ * Con "sweep" dobla N (blocks) o M (players) hasta que el p99 del
+ * tick supera el presupuesto. Como las papeleras cerradas no tienen
+ * coste por tick, el limite real suele estar en "players".
+ *
+ * USO:
+ *   ./gradlew simulate -Pblocks=10000 -Pplayers=200 -Pticks=1200
+ *   ./gradlew simulate -Psweep=players -PbudgetMs=2
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.loadsim;
+
+import com.scarforges.tutorialblock.blockstate.TrashSlots;
+import com.scarforges.tutorialblock.interaction.InteractionThrottle;
+import com.scarforges.tutorialblock.metrics.LatencyHistogram;
+import com.scarforges.tutorialblock.ui.EnchantAction;
+import com.scarforges.tutorialblock.ui.UIUpdateBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+public final class LoadSimulator {
+
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    // ============================================================
+    // PARAMETROS (system properties, ver la tarea "simulate")
+    // ============================================================
+    static final class Settings {
+        int blocks = Integer.getInteger("blocks", 10_000);
+        int players = Integer.getInteger("players", 200);
+        int ticks = Integer.getInteger("ticks", 1200);
+        int capacity = Integer.getInteger("capacity", 27);
+        double clicksPerSecond = Double.parseDouble(System.getProperty("clicksPerSecond", "5"));
+        double enchantRatio = Double.parseDouble(System.getProperty("enchantRatio", "0.25"));
+        double budgetMs = Double.parseDouble(System.getProperty("budgetMs", "2"));
+        String sweep = System.getProperty("sweep", "");
+        long seed = Long.getLong("seed", 42L);
+    }
+
+    // ============================================================
+    // PAPELERA: el mismo flujo que TutorialTrashState
+    // ============================================================
+    static final class SimTrash {
+        final Object[] slots;
+        final TrashSlots<SimPlayer> tracked;
+        int viewers;
+        // Resumenes enviados en el ultimo close() (uno por depositante)
+        int summaries;
+        // Dueño del ultimo stack borrado (lo que leeria el diario)
+        SimPlayer lastOwner;
+
+        SimTrash(int capacity) {
+            slots = new Object[capacity];
+            tracked = new TrashSlots<>(capacity);
+        }
+
+        // onItemChange(): el slot cambiado pasa a ser del que deposita
+        void put(int slot, Object stack, SimPlayer depositor) {
+            slots[slot] = stack;
+            tracked.update(slot, true, depositor);
+        }
+
+        // Devuelve cuantos stacks se destruyeron (0 si otro jugador sigue mirando)
+        int close() {
+            summaries = 0;
+            if (--viewers > 0 || tracked.count() == 0) {
+                return 0;
+            }
+            int count = tracked.count();
+
+            // Un resumen por depositante (y uno para los de dueño desconocido)
+            int[] counts = tracked.tally();
+            for (int c : counts) {
+                if (c > 0) {
+                    summaries++;
+                }
+            }
+
+            // Borrar solo los ocupados; el diario apunta el dueño de cada uno
+            for (int slot = tracked.nextOccupied(0); slot >= 0; slot = tracked.nextOccupied(slot + 1)) {
+                lastOwner = tracked.owner(slot);
+                slots[slot] = null;
+            }
+            tracked.clearAll();
+            return count;
+        }
+    }
+
+    // ============================================================
+    // JUGADOR: o esta libre, o usando una papelera, o en la mesa
+    // ============================================================
+    static final class SimPlayer {
+        final int id;
+        SimTrash trash;
+        int ticksLeft;
+        UIUpdateBuffer panel;
+        int clicks;
+        boolean flushScheduled;
+
+        SimPlayer(int id) {
+            this.id = id;
+        }
+    }
+
+    static final class Result {
+        final LatencyHistogram tickTime = new LatencyHistogram();
+        long ticksOverBudget;
+        long chatMessages;
+        long uiPackets;
+        long stacksDestroyed;
+        long throttled;
+        long bytesPerBlock;
+    }
+
+    private static final String[] PAYLOAD_IDS = {"HELLO", "HELLO", "HELLO", "CLOSE", "bogus"};
+
+    private LoadSimulator() {
+    }
+
+    public static void main(String[] args) {
+        Settings settings = new Settings();
+        boolean sweepPlayers = settings.sweep.equals("players");
+        if (!sweepPlayers && !settings.sweep.equals("blocks")) {
+            print(settings.blocks, settings, run(settings.blocks, settings));
+            return;
+        }
+
+        long budgetNanos = (long) (settings.budgetMs * 1_000_000);
+        for (int n = sweepPlayers ? 50 : 1_000; n <= 10_000_000; n *= 2) {
+            if (sweepPlayers) {
+                settings.players = n;
+            } else {
+                settings.blocks = n;
+            }
+            Result result = run(settings.blocks, settings);
+            print(settings.blocks, settings, result);
+            if (result.tickTime.percentileNanos(0.99) > budgetNanos) {
+                System.out.println("Presupuesto de " + settings.budgetMs + " ms superado con "
+                    + n + (sweepPlayers ? " jugadores" : " bloques"));
+                return;
+            }
+        }
+    }
+
+    static Result run(int blockCount, Settings s) {
+        Result result = new Result();
+        SplittableRandom random = new SplittableRandom(s.seed);
+
+        // Memoria por bloque: heap antes y despues de crear las papeleras
+        long before = usedHeap();
+        SimTrash[] blocks = new SimTrash[blockCount];
+        for (int i = 0; i < blockCount; i++) {
+            blocks[i] = new SimTrash(s.capacity);
+        }
+        result.bytesPerBlock = Math.max(0, usedHeap() - before) / blockCount;
+
+        List<SimPlayer> players = new ArrayList<>();
+        for (int i = 0; i < s.players; i++) {
+            players.add(new SimPlayer(i));
+        }
+
+        InteractionThrottle throttle = new InteractionThrottle();
+        long windowNanos = TimeUnit.MILLISECONDS.toNanos(500);
+        double clickChance = s.clicksPerSecond / 20.0;
+        Object stack = new Object();
+
+        // Warmup: la primera cuarta parte de los ticks no se mide
+        int warmup = s.ticks / 4;
+        for (int tick = 0; tick < s.ticks + warmup; tick++) {
+            long simNow = tick * TICK_NANOS;
+            long start = System.nanoTime();
+
+            for (SimPlayer p : players) {
+                if (p.trash != null) {
+                    // Usando una papelera: mete un stack por tick y cierra al acabar
+                    int slot = random.nextInt(s.capacity);
+                    p.trash.put(slot, stack, p);
+                    if (--p.ticksLeft == 0) {
+                        result.stacksDestroyed += p.trash.close();
+                        result.chatMessages += p.trash.summaries;
+                        p.trash = null;
+                    }
+                } else if (p.panel != null) {
+                    // En la mesa: clicks a la frecuencia configurada
+                    if (random.nextDouble() < clickChance) {
+                        EnchantAction action = EnchantAction.fromId(PAYLOAD_IDS[random.nextInt(PAYLOAD_IDS.length)]);
+                        if (action == EnchantAction.HELLO) {
+                            p.clicks++;
+                            result.chatMessages++;
+                            p.panel.set("#StatusText.Text", "Has pulsado " + p.clicks + " vez/veces!");
+                            p.flushScheduled = true;
+                        } else if (action == EnchantAction.CLOSE) {
+                            p.panel = null;
+                        }
+                    }
+                } else if (random.nextDouble() < 0.05) {
+                    // Libre: 5% de probabilidad por tick de abrir algo
+                    if (random.nextDouble() < s.enchantRatio) {
+                        int table = random.nextInt(blockCount);
+                        if (throttle.tryAcquire(p.id, table, 64, 0, simNow, windowNanos)) {
+                            p.panel = new UIUpdateBuffer();
+                            p.panel.assume("#StatusText.Text", "");
+                            result.chatMessages++;
+                        } else {
+                            result.throttled++;
+                        }
+                    } else {
+                        p.trash = blocks[random.nextInt(blockCount)];
+                        p.trash.viewers++;
+                        p.ticksLeft = 20 + random.nextInt(100);
+                        result.chatMessages++;
+                    }
+                }
+            }
+
+            // Fin de tick: un flush por panel con cambios
+            for (SimPlayer p : players) {
+                if (p.flushScheduled && p.panel != null) {
+                    if (p.panel.drain((selector, value) -> { }) > 0) {
+                        result.uiPackets++;
+                    }
+                }
+                p.flushScheduled = false;
+            }
+
+            long elapsed = System.nanoTime() - start;
+            if (tick >= warmup) {
+                result.tickTime.record(elapsed);
+                if (elapsed > (long) (s.budgetMs * 1_000_000)) {
+                    result.ticksOverBudget++;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void print(int blocks, Settings s, Result r) {
+        LatencyHistogram h = r.tickTime;
+        System.out.println("blocks=" + blocks + " players=" + s.players + " ticks=" + s.ticks
+            + " clicks/s=" + s.clicksPerSecond);
+        System.out.println("  tick: p50=" + micros(h.percentileNanos(0.50))
+            + " p95=" + micros(h.percentileNanos(0.95))
+            + " p99=" + micros(h.percentileNanos(0.99))
+            + " max=" + micros(h.maxNanos())
+            + " over-budget=" + r.ticksOverBudget);
+        System.out.println("  messages: chat=" + r.chatMessages + " ui-packets=" + r.uiPackets
+            + " throttled=" + r.throttled + " stacks-destroyed=" + r.stacksDestroyed);
+        System.out.println("  memory: ~" + r.bytesPerBlock + " bytes/block");
+    }
+
+    private static String micros(long nanos) {
+        return (nanos / 1000) + "us";
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
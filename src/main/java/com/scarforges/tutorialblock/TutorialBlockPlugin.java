@@ -11,46 +11,136 @@
  *
  * REGISTRO:
  *   - Bloque 1: Se registra una interaccion custom (EnchantTableInteraction)
- *     que conecta el JSON "Type" con la clase Java via CODEC.
+ *     que conecta el JSON "Type" con la clase Java via CODEC, y un
+ *     BlockState sin datos (EnchantTableState) para saber donde esta.
  *   - Bloque 2: Se registra un BlockState custom (TutorialTrashState)
  *     que extiende ItemContainerState para manejar el inventario.
  *   - Bloque 3: No necesita Java, todo se define en el JSON del bloque.
  *
+ * OBSERVABILIDAD:
+ *   - StartupProfiler mide cada fase de setup() y start() (una linea
+ *     en el log y en "/tutorial stats").
+ *   - PluginMetrics cuenta aperturas, clicks, cierres y tiempos.
+ *   - "/tutorial stats" y "/tutorial dump" para consultarlas.
+ *   - El log INFO por evento solo se activa con "VerboseLogging"
+ *     en TutorialConfig.json (ver verbose()).
+ *   - TrashJournal apunta cada stack destruido por una papelera
+ *     ("/tutorial trashlog" y "/tutorial trashrestore").
+ *
+ * MENSAJES:
+ *   - Messages compila en setup() los textos de
+ *     "messages/<Language>.properties" (es / en).
+ *
+ * DATOS POR JUGADOR:
+ *   - SessionStore guarda contadores, semilla de encantamientos y
+ *     preferencias por UUID, y los escribe a disco en segundo plano.
+ *
+ * REGISTRO ESPACIAL:
+ *   - TutorialBlocks sabe donde esta cada papelera y Enchant Table
+ *     de cada mundo ("/tutorial blocks"), sin recorrer chunks.
+ *
+ * HILOS:
+ *   - PluginExecutor (hilos virtuales) ejecuta el I/O del plugin fuera
+ *     del hilo del mundo: escrituras del diario y de las sesiones.
+ *
  * LOS BLOQUES SE OBTIENEN CON: /give Tutorial_Enchant_Table (etc.)
  *
  * ============================================================
  */
 package com.scarforges.tutorialblock;
 
+import com.hypixel.hytale.server.core.event.events.player.PlayerConnectEvent;
+import com.hypixel.hytale.server.core.event.events.player.PlayerDisconnectEvent;
 import com.hypixel.hytale.server.core.plugin.JavaPlugin;
 import com.hypixel.hytale.server.core.plugin.JavaPluginInit;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.Universe;
 import com.hypixel.hytale.server.core.modules.interaction.interaction.config.Interaction;
+import com.hypixel.hytale.server.core.util.Config;
 
+import com.scarforges.tutorialblock.asset.AssetIndex;
+import com.scarforges.tutorialblock.audit.TrashJournal;
+import com.scarforges.tutorialblock.blockstate.EnchantTableState;
+import com.scarforges.tutorialblock.blockstate.TrashSinkSystem;
 import com.scarforges.tutorialblock.blockstate.TutorialTrashState;
+import com.scarforges.tutorialblock.command.TutorialCommand;
+import com.scarforges.tutorialblock.config.TutorialConfig;
+import com.scarforges.tutorialblock.crafting.CraftBenchRecipes;
+import com.scarforges.tutorialblock.enchant.EnchantingEngine;
 import com.scarforges.tutorialblock.interaction.EnchantTableInteraction;
+import com.scarforges.tutorialblock.message.Messages;
+import com.scarforges.tutorialblock.metrics.StartupProfiler;
+import com.scarforges.tutorialblock.registry.TutorialBlocks;
+import com.scarforges.tutorialblock.session.SessionStore;
+import com.scarforges.tutorialblock.task.PluginExecutor;
+import com.scarforges.tutorialblock.ui.EnchantTableModel;
+import com.scarforges.tutorialblock.ui.EnchantTablePanel;
+import com.scarforges.tutorialblock.ui.UITemplate;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 public class TutorialBlockPlugin extends JavaPlugin {
 
     private static TutorialBlockPlugin instance;
 
+    // Copia del flag "VerboseLogging" para leerlo sin coste en cada evento
+    private static volatile boolean verbose = false;
+
+    // withConfig() debe llamarse en el constructor (antes de setup)
+    private final Config<TutorialConfig> config;
+
+    // Diario de items destruidos (se abre en start(), se cierra en shutdown())
+    private volatile TrashJournal journal;
+
+    // Datos por jugador (se abre en start(), se guarda y cierra en shutdown())
+    private volatile SessionStore sessions;
+
+    // Tareas fuera del hilo del mundo (se crea en start(), se vacia en shutdown())
+    private volatile PluginExecutor executor;
+
     public TutorialBlockPlugin(JavaPluginInit init) {
         super(init);
+        this.config = this.withConfig("TutorialConfig", TutorialConfig.CODEC);
     }
 
     @Override
     protected void setup() {
         instance = this;
+        // Cada mark() cierra una fase: al final, una linea con lo que tardo cada una
+        StartupProfiler profile = new StartupProfiler("setup");
 
-        getLogger().at(Level.INFO).log("===========================================");
-        getLogger().at(Level.INFO).log("   TutorialCustomBlock v1.0.0");
-        getLogger().at(Level.INFO).log("   by ScarForges");
-        getLogger().at(Level.INFO).log("   Tutorial: 3 Bloques Custom");
-        getLogger().at(Level.INFO).log("   1) Enchant Table  -> Custom UI");
-        getLogger().at(Level.INFO).log("   2) Trash Block    -> Inventario");
-        getLogger().at(Level.INFO).log("   3) Craft Table    -> Mesa de Crafteo");
-        getLogger().at(Level.INFO).log("===========================================");
+        // Crea TutorialConfig.json con los valores por defecto si no existe
+        config.save();
+        verbose = config.get().isVerboseLogging();
+        getLogger().at(Level.INFO).log("TutorialCustomBlock v1.0.0 by ScarForges"
+            + " - Enchant Table (Custom UI), Trash Block (Inventario), Craft Table (Mesa de Crafteo)");
+        profile.mark("config");
+
+        // Indice de assets generado y validado al compilar (tarea "indexAssets")
+        AssetIndex assets = null;
+        try {
+            assets = AssetIndex.load();
+        } catch (IOException e) {
+            getLogger().at(Level.WARNING).log("Indice de assets invalido: " + e.getMessage());
+        }
+        if (assets == null) {
+            getLogger().at(Level.WARNING).log("Sin " + AssetIndex.RESOURCE + ": compila con Gradle para validar los assets");
+        }
+        profile.mark("assets");
+
+        // Compila UNA vez los mensajes del idioma de la config: al abrir,
+        // pulsar o cerrar solo se rellenan los parametros (nombre, stacks...)
+        try {
+            String language = Messages.load(config.get().getLanguage());
+            getLogger().at(Level.INFO).log("Mensajes cargados: " + language);
+        } catch (IOException | IllegalArgumentException e) {
+            getLogger().at(Level.WARNING).log("No se pudieron cargar los mensajes: " + e.getMessage());
+        }
+        profile.mark("messages");
 
         // -- BLOQUE 1: Enchant Table (Custom UI) --
         // Registra la interaccion que abre la UI al pulsar la tecla F.
@@ -61,7 +151,26 @@ public class TutorialBlockPlugin extends JavaPlugin {
             EnchantTableInteraction.class,
             EnchantTableInteraction.CODEC
         );
-        getLogger().at(Level.INFO).log("Bloque 1: EnchantTableInteraction registrada");
+
+        // BlockState sin datos: solo apunta la mesa en TutorialBlocks al
+        // colocarla o cargar su chunk (y la quita al romperla o descargarlo)
+        this.getBlockStateRegistry().registerBlockState(
+            EnchantTableState.class,
+            TutorialBlocks.ENCHANT_TABLE_ID,
+            EnchantTableState.CODEC
+        );
+
+        // Prepara UNA vez el layout y los bindings del panel, que
+        // despues comparten todos los jugadores que abren la mesa.
+        UITemplate panel = EnchantTablePanel.prepareTemplate();
+        requireAsset(assets, AssetIndex.ITEM, TutorialBlocks.ENCHANT_TABLE_ID);
+        requireAsset(assets, AssetIndex.UI, panel.getUiPath());
+        profile.mark("enchant_table");
+
+        // Precalcula las tablas de ofertas (categoria x tier) del motor
+        // de encantamientos: abrir la mesa solo muestrea, no recalcula.
+        EnchantingEngine.prepare();
+        profile.mark("enchant_engine");
 
         // -- BLOQUE 2: Trash Block (Inventario) --
         // Registra el BlockState que maneja el inventario del bloque.
@@ -73,28 +182,164 @@ public class TutorialBlockPlugin extends JavaPlugin {
             com.hypixel.hytale.server.core.universe.world.meta.state.ItemContainerState.ItemContainerStateData.class,
             com.hypixel.hytale.server.core.universe.world.meta.state.ItemContainerState.ItemContainerStateData.CODEC
         );
-        getLogger().at(Level.INFO).log("Bloque 2: TutorialTrashState registrado");
+        requireAsset(assets, AssetIndex.ITEM, "Tutorial_Trash_Block");
+
+        // Vacia poco a poco las colas de TutorialTrashState.sink()
+        // (solo visita las papeleras con items pendientes)
+        this.getChunkStoreRegistry().registerSystem(new TrashSinkSystem());
+        profile.mark("trash_block");
 
         // -- BLOQUE 3: Craft Table (Mesa de Crafteo) --
         // No necesita registro en Java. El sistema nativo de Hytale se encarga
         // de todo usando la config "Bench" en el JSON del bloque.
         // Las recetas se definen en el JSON de cada item crafteable.
-        getLogger().at(Level.INFO).log("Bloque 3: Craft Table (sistema nativo, sin Java)");
+        // El plugin solo mantiene un indice ingrediente -> recetas de la mesa
+        // (para "/tutorial craftable"), al dia con las recargas de recetas.
+        CraftBenchRecipes.register(this.getEventRegistry());
+        requireAsset(assets, AssetIndex.ITEM, "Tutorial_Craft_Table");
+        profile.mark("craft_table");
+
+        // -- SESIONES: conectado / desconectado (para la LRU de SessionStore) --
+        // Al conectarse, su registro se lee en el executor: el hilo del
+        // mundo ya lo encuentra en memoria (si la cola esta llena, se
+        // leera en el primer uso)
+        this.getEventRegistry().register(PlayerConnectEvent.class, event -> {
+            SessionStore open = sessions;
+            PluginExecutor tasks = executor;
+            if (open != null) {
+                UUID uuid = event.getPlayerRef().getUuid();
+                open.markOnline(uuid);
+                if (tasks != null) {
+                    tasks.tryExecute(() -> open.preload(uuid));
+                }
+            }
+        });
+        this.getEventRegistry().register(PlayerDisconnectEvent.class, event -> {
+            SessionStore open = sessions;
+            if (open != null) {
+                open.markOffline(event.getPlayerRef().getUuid());
+            }
+        });
 
-        getLogger().at(Level.INFO).log("TutorialCustomBlock cargado correctamente!");
+        // -- ADMIN: /tutorial stats | dump | trashlog | trashrestore | craftable | quiet | blocks --
+        this.getCommandRegistry().registerCommand(new TutorialCommand());
+        profile.mark("events_commands");
+
+        getLogger().at(Level.INFO).log("TutorialCustomBlock cargado: " + profile.finish());
+    }
+
+    // Aviso (no error) si algo registrado en Java no tiene su asset en el jar
+    private void requireAsset(AssetIndex assets, String kind, String id) {
+        if (assets != null && !assets.contains(kind, id)) {
+            getLogger().at(Level.WARNING).log("Falta el asset " + kind + " '" + id + "' en " + AssetIndex.RESOURCE);
+        }
     }
 
     @Override
     protected void start() {
-        getLogger().at(Level.INFO).log("TutorialCustomBlock iniciado");
+        TutorialConfig cfg = config.get();
+        StartupProfiler profile = new StartupProfiler("start");
+
+        // Primero el executor: el diario y las sesiones escriben a disco desde el executor
+        PluginExecutor tasks = new PluginExecutor(cfg.getTaskQueueCapacity());
+        executor = tasks;
+        profile.mark("executor");
+
+        try {
+            journal = new TrashJournal(
+                getDataDirectory().resolve("trash-journal"),
+                cfg.getJournalSegmentBytes(),
+                cfg.getJournalMaxSegments(),
+                tasks
+            );
+        } catch (IOException e) {
+            getLogger().at(Level.WARNING).log("No se pudo abrir el diario de la papelera: " + e.getMessage());
+        }
+        profile.mark("journal");
+        try {
+            SessionStore store = new SessionStore(
+                getDataDirectory().resolve(cfg.getSessionFile()),
+                cfg.getSessionMaxOffline()
+            );
+            sessions = store;
+            // Jugadores ya conectados (plugin recargado): como si acabaran de entrar
+            for (PlayerRef online : Universe.get().getPlayers()) {
+                UUID uuid = online.getUuid();
+                store.markOnline(uuid);
+                tasks.tryExecute(() -> store.preload(uuid));
+            }
+            tasks.scheduleAtFixedRate(() -> {
+                try {
+                    store.flush();
+                } catch (IOException e) {
+                    getLogger().at(Level.WARNING).log("Error guardando sesiones: " + e.getMessage());
+                }
+            }, TimeUnit.SECONDS.toMillis(cfg.getSessionFlushSeconds()));
+        } catch (IOException e) {
+            getLogger().at(Level.WARNING).log("No se pudieron abrir las sesiones: " + e.getMessage());
+        }
+        profile.mark("sessions");
+        int recipes = CraftBenchRecipes.rebuild();
+        getLogger().at(Level.INFO).log("Craft Table: " + recipes + " receta(s) indexadas");
+        profile.mark("recipes");
+
+        getLogger().at(Level.INFO).log("TutorialCustomBlock iniciado: " + profile.finish());
     }
 
     @Override
     protected void shutdown() {
+        // Primero se vacia el executor (escrituras en curso); despues el
+        // diario y las sesiones escriben lo que quede en este hilo.
+        PluginExecutor tasks = executor;
+        executor = null;
+        if (tasks != null) {
+            tasks.close();
+        }
+
+        TrashJournal open = journal;
+        journal = null;
+        if (open != null) {
+            open.close();
+        }
+        SessionStore openSessions = sessions;
+        sessions = null;
+        if (openSessions != null) {
+            openSessions.close();
+        }
+        TutorialBlocks.clear();
+        EnchantTableModel.clear();
         getLogger().at(Level.INFO).log("TutorialCustomBlock desactivado");
     }
 
     public static TutorialBlockPlugin getInstance() {
         return instance;
     }
+
+    public TutorialConfig getConfig() {
+        return config.get();
+    }
+
+    // null si el diario no se pudo abrir o el plugin esta parado
+    public TrashJournal getJournal() {
+        return journal;
+    }
+
+    // null si las sesiones no se pudieron abrir o el plugin esta parado
+    public SessionStore getSessions() {
+        return sessions;
+    }
+
+    // null si el plugin esta parado
+    public PluginExecutor getExecutor() {
+        return executor;
+    }
+
+    public Path getMetricsFile() {
+        return getDataDirectory().resolve(config.get().getMetricsFile());
+    }
+
+    // true si hay que loguear cada apertura / click / cierre
+    public static boolean verbose() {
+        return verbose;
+    }
 }
@@ -0,0 +1,90 @@
+/*
+ * ============================================================
+ * TUTORIAL: AssetIndex - Indice de assets generado al compilar
+ * ============================================================
+ *
+ * La tarea de Gradle "indexAssets" valida Server/Item y Common/UI
+ * y escribe "tutorial-assets.idx" en la raiz del jar:
+ *
+ *   # comentario
+ *   item<TAB>Tutorial_Trash_Block<TAB>Server/Item/Items/Tutorial_Trash_Block.json
+ *   ui<TAB>Pages/EnchantTable/EnchantTablePanel.ui<TAB>Common/UI/...
+ *
+ * En setup() el plugin lo lee (una lectura, sin parsear JSON) para
+ * comprobar que lo que registra en Java tiene su asset, en vez de
+ * descubrirlo cuando un jugador abre la mesa.
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.asset;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public final class AssetIndex {
+
+    public static final String RESOURCE = "tutorial-assets.idx";
+
+    public static final String ITEM = "item";
+    public static final String INTERACTION = "interaction";
+    public static final String ROOT_INTERACTION = "root_interaction";
+    public static final String UI = "ui";
+
+    // tipo -> id -> ruta dentro del jar
+    private final Map<String, Map<String, String>> byKind;
+    private final int size;
+
+    private AssetIndex(Map<String, Map<String, String>> byKind, int size) {
+        this.byKind = byKind;
+        this.size = size;
+    }
+
+    // null si el jar no trae indice (ej: ejecutado sin pasar por Gradle)
+    public static AssetIndex load() throws IOException {
+        InputStream in = AssetIndex.class.getClassLoader().getResourceAsStream(RESOURCE);
+        if (in == null) {
+            return null;
+        }
+
+        Map<String, Map<String, String>> byKind = new HashMap<>();
+        int size = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\t");
+                if (fields.length != 3) {
+                    throw new IOException("Linea invalida en " + RESOURCE + ": " + line);
+                }
+                byKind.computeIfAbsent(fields[0], k -> new HashMap<>()).put(fields[1], fields[2]);
+                size++;
+            }
+        }
+        return new AssetIndex(byKind, size);
+    }
+
+    public boolean contains(String kind, String id) {
+        return byKind.getOrDefault(kind, Collections.emptyMap()).containsKey(id);
+    }
+
+    // Ruta del asset dentro del jar, null si no esta
+    public String path(String kind, String id) {
+        return byKind.getOrDefault(kind, Collections.emptyMap()).get(id);
+    }
+
+    public int count(String kind) {
+        return byKind.getOrDefault(kind, Collections.emptyMap()).size();
+    }
+
+    public int size() {
+        return size;
+    }
+}
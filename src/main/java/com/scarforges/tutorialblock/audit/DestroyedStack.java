@@ -0,0 +1,65 @@
+/*
+ * ============================================================
+ * TUTORIAL: DestroyedStack - Un stack eliminado por una papelera
+ * ============================================================
+ *
+ * Una entrada del diario de auditoria (ver TrashJournal):
+ * quien, que, cuanto, donde y cuando. Guarda el stack ENTERO
+ * (durabilidad y metadata en JSON) para poder devolverlo tal cual.
+ *
+ * Los stacks sin jugador se apuntan con NO_PLAYER y un nombre fijo:
+ *   - SINK_USERNAME:    llegaron por TutorialTrashState.sink()
+ *   - UNKNOWN_USERNAME: no se supo quien los metio
+ * ("/tutorial trashlog sink" los lista).
+ *
+ * "id" y "restored" solo tienen sentido en las entradas que
+ * devuelve TrashJournal.query(): donde esta el registro en el
+ * diario y si "/tutorial trashrestore" ya lo devolvio.
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.audit;
+
+import java.util.UUID;
+
+public record DestroyedStack(
+    long id,
+    long timeMillis,
+    UUID player,
+    String username,
+    int x,
+    int y,
+    int z,
+    String itemId,
+    int quantity,
+    double durability,
+    double maxDurability,
+    String metadata,
+    boolean restored
+) {
+
+    public static final UUID NO_PLAYER = new UUID(0L, 0L);
+    public static final String SINK_USERNAME = "sink";
+    public static final String UNKNOWN_USERNAME = "unknown";
+
+    // Entrada sin registro en el diario (nueva, o de un segmento antiguo sin marcas)
+    public static final long NO_ID = 0L;
+
+    // Una entrada nueva, para TrashJournal.record()
+    public DestroyedStack(long timeMillis, UUID player, String username, int x, int y, int z,
+                          String itemId, int quantity, double durability, double maxDurability, String metadata) {
+        this(NO_ID, timeMillis, player, username, x, y, z,
+            itemId, quantity, durability, maxDurability, metadata, false);
+    }
+
+    // Lo mismo con otra hora y cantidad (lo que no cupo al devolverlo)
+    public DestroyedStack withQuantity(long timeMillis, int quantity) {
+        return new DestroyedStack(timeMillis, player, username, x, y, z,
+            itemId, quantity, durability, maxDurability, metadata);
+    }
+
+    // Se puede devolver: esta en el diario con marca y nadie lo devolvio aun
+    public boolean restorable() {
+        return id != NO_ID && !restored;
+    }
+}
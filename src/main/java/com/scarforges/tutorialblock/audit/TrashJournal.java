@@ -0,0 +1,629 @@
+/*
+ * ============================================================
+ * TUTORIAL: TrashJournal - Diario de items eliminados
+ * ============================================================
+ *
+ * Cada stack que destruye una papelera se apunta aqui, para poder
+ * consultarlo (y devolverlo) si alguien tira algo por error.
+ *
+ * FORMATO: archivos binarios "segment-000001.bin" de como mucho
+ * "segmentBytes", solo de escritura al final (append-only).
+ *
+ *   Cabecera (16 bytes): MAGIC, VERSION, hora del primer registro
+ *   Registro: [int longitud][long hora][long uuid x2][int x,y,z]
+ *             [int cantidad][short + bytes usuario][short + bytes item]
+ *             [byte marcas][double durabilidad, maxima]
+ *             [int + bytes metadata JSON] (desde VERSION 2)
+ *
+ * MARCAS: el unico byte que se reescribe despues. RESTORED = ya lo
+ * devolvio "/tutorial trashrestore"; claim() la pone solo si no
+ * estaba, asi cada entrada se devuelve UNA vez. Los segmentos de
+ * VERSION 1 se pueden leer pero no tienen marcas (no se devuelven).
+ *
+ * Cada lote se escribe con UNA escritura posicional (FileChannel)
+ * con la longitud de su primer registro a 0, y esa longitud se
+ * escribe la ULTIMA: un lector nunca ve un registro a medias
+ * (longitud 0 = fin del segmento). Al llenarse un segmento se abre
+ * el siguiente y se borran los mas antiguos (rotacion).
+ *
+ * Nada se mapea en memoria: en Windows un archivo mapeado no se
+ * puede borrar hasta que el GC suelta el mapeo. Si aun asi un
+ * borrado falla (un antivirus, un lector abierto...), se vuelve a
+ * intentar despues del siguiente lote; el lote nunca se pierde.
+ *
+ * HILOS: record() solo mete el stack en una cola acotada (nunca
+ * espera al disco, si la cola esta llena se descarta y se cuenta).
+ * La escritura por lotes es una tarea del PluginExecutor que se
+ * programa al llegar el primer registro y termina cuando la cola se
+ * vacia (sin hilo propio esperando). query() lee los segmentos sin
+ * bloquear al escritor, por trozos de READ_BYTES (nunca un segmento
+ * entero en memoria).
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.audit;
+
+import com.scarforges.tutorialblock.metrics.PluginMetrics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+public final class TrashJournal implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger("Tutorial-TrashJournal");
+
+    private static final int MAGIC = 0x54524A31; // "TRJ1"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 16;
+    private static final int FIRST_TIME_OFFSET = 8;
+    // Parte fija de un registro (sin contar la longitud ni los Strings)
+    private static final int FIXED_BODY_BYTES = 8 + 16 + 12 + 4 + 2 + 2 + 1 + 16 + 4;
+
+    private static final byte FLAG_RESTORED = 1;
+
+    private static final int QUEUE_CAPACITY = 65_536;
+    private static final int MAX_BATCH = 1_024;
+    // Bytes de registros que se juntan antes de escribir (cabe el mayor registro posible)
+    private static final int RUN_BYTES = 256 * 1024;
+    // Trozo de segmento que se lee de una vez: cabe el mayor registro posible
+    private static final int READ_BYTES = RUN_BYTES;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final BlockingQueue<DestroyedStack> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Executor executor;
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+    private volatile boolean running = true;
+
+    // Solo se tocan con writeLock (una escritura a la vez)
+    private final Object writeLock = new Object();
+    private long segmentSeq;
+    private FileChannel segment;
+    private int position;
+    // Registros del lote aun sin escribir; empiezan en runStart del segmento
+    private final ByteBuffer run = ByteBuffer.allocate(RUN_BYTES + 4);
+    private int runStart;
+    private long runFirstTime;
+    // Un borrado de la rotacion fallo: se reintenta tras el proximo lote
+    private boolean pruneFailed;
+
+    public TrashJournal(Path directory, int segmentBytes, int maxSegments, Executor executor) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = Math.max(1, maxSegments);
+        Files.createDirectories(directory);
+        this.executor = executor;
+        openLastSegment();
+    }
+
+    // ============================================================
+    // RECORD: Llamado desde el hilo del mundo. No bloquea nunca.
+    // ============================================================
+    public boolean record(DestroyedStack stack) {
+        if (!running || !queue.offer(stack)) {
+            PluginMetrics.Counter.JOURNAL_DROPPED.increment();
+            return false;
+        }
+        scheduleDrain();
+        return true;
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    // ============================================================
+    // QUERY: Recorre los segmentos y filtra cada registro por hora.
+    // La hora es la del stack, no la de escritura (varios mundos,
+    // relojes que retroceden...): no se puede cortar al ver una hora
+    // fuera del rango. username null = todos los jugadores. Devuelve
+    // como mucho "limit" registros (los ultimos escritos), de antiguo
+    // a nuevo. Con includeRestored = false se saltan los ya devueltos.
+    // Lee de disco: desde el executor, nunca desde el hilo del mundo.
+    // ============================================================
+    public List<DestroyedStack> query(String username, long fromMillis, long toMillis, int limit,
+                                      boolean includeRestored) throws IOException {
+        byte[] wanted = username == null ? null : username.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+        ArrayDeque<DestroyedStack> found = new ArrayDeque<>();
+        ByteBuffer buf = ByteBuffer.allocate(READ_BYTES);
+        for (Path file : listSegments()) {
+            scanSegment(file, buf, wanted, fromMillis, toMillis, limit, includeRestored, found);
+        }
+        return new ArrayList<>(found);
+    }
+
+    // ============================================================
+    // CLAIM / RELEASE: Pone o quita la marca RESTORED de entradas
+    // que devolvio query(). claim() devuelve solo las que no estaban
+    // marcadas: dos restauraciones a la vez nunca reparten la misma
+    // entrada. release() es para las que al final no se entregaron.
+    // Tocan disco: desde el executor, nunca desde el hilo del mundo.
+    // ============================================================
+    public List<DestroyedStack> claim(List<DestroyedStack> stacks) throws IOException {
+        return mark(stacks, true);
+    }
+
+    public void release(List<DestroyedStack> stacks) throws IOException {
+        mark(stacks, false);
+    }
+
+    private List<DestroyedStack> mark(List<DestroyedStack> stacks, boolean restored) throws IOException {
+        List<DestroyedStack> changed = new ArrayList<>(stacks.size());
+        synchronized (writeLock) {
+            for (DestroyedStack stack : stacks) {
+                if (stack.id() != DestroyedStack.NO_ID && setFlag(stack.id(), restored)) {
+                    changed.add(stack);
+                }
+            }
+            segment.force(false);
+        }
+        return changed;
+    }
+
+    // id = (segmento << 32) | posicion del byte de marcas en el archivo
+    private boolean setFlag(long id, boolean on) throws IOException {
+        long seq = id >>> 32;
+        int offset = (int) id;
+        if (seq == segmentSeq) {
+            return setFlag(segment, offset, on);
+        }
+        Path file = segmentPath(seq);
+        if (!Files.exists(file)) {
+            // Ya rotado y borrado
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            boolean changed = setFlag(channel, offset, on);
+            channel.force(false);
+            return changed;
+        }
+    }
+
+    private static boolean setFlag(FileChannel channel, int offset, boolean on) throws IOException {
+        ByteBuffer flag = ByteBuffer.allocate(1);
+        if (channel.read(flag, offset) != 1) {
+            return false;
+        }
+        byte flags = flag.get(0);
+        byte updated = (byte) (on ? flags | FLAG_RESTORED : flags & ~FLAG_RESTORED);
+        if (updated == flags) {
+            return false;
+        }
+        channel.write(ByteBuffer.wrap(new byte[] {updated}), offset);
+        return true;
+    }
+
+    // ============================================================
+    // CLOSE: Termina de escribir lo que quede en la cola (en el hilo
+    // que llama: el executor puede estar cerrandose tambien).
+    // ============================================================
+    @Override
+    public void close() {
+        running = false;
+        writePending();
+        synchronized (writeLock) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Error cerrando el diario de la papelera", e);
+            }
+        }
+    }
+
+    // ============================================================
+    // ESCRITURA (tarea del executor)
+    // ============================================================
+
+    // Una sola tarea de escritura programada a la vez
+    private void scheduleDrain() {
+        if (!drainScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // Executor lleno o cerrado: lo intentara el proximo record() (o close())
+            drainScheduled.set(false);
+        }
+    }
+
+    private void drain() {
+        try {
+            writePending();
+        } finally {
+            drainScheduled.set(false);
+        }
+        // Un record() pudo llegar despues de vaciar y antes de soltar el flag
+        if (running && !queue.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+
+    private void writePending() {
+        synchronized (writeLock) {
+            List<DestroyedStack> batch = new ArrayList<>(MAX_BATCH);
+            while (queue.drainTo(batch, MAX_BATCH) > 0) {
+                try {
+                    long start = System.nanoTime();
+                    int written = 0;
+                    for (DestroyedStack stack : batch) {
+                        if (append(stack)) {
+                            written++;
+                        }
+                    }
+                    flushRun();
+                    segment.force(false);
+                    PluginMetrics.Counter.JOURNAL_RECORDS.add(written);
+                    PluginMetrics.Timer.JOURNAL_BATCH.record(System.nanoTime() - start);
+                } catch (IOException | RuntimeException e) {
+                    // Lo que no llego a publicarse se sobrescribe con el siguiente lote
+                    if (run.position() > 0) {
+                        position = runStart;
+                    }
+                    PluginMetrics.Counter.JOURNAL_DROPPED.add(batch.size());
+                    LOGGER.log(Level.WARNING, "Error escribiendo el diario de la papelera", e);
+                } finally {
+                    run.clear();
+                    batch.clear();
+                }
+            }
+            if (pruneFailed) {
+                prune();
+            }
+        }
+    }
+
+    // Copia el registro al lote en memoria; flushRun() lo escribe.
+    // false = no cabe en un segmento (metadata enorme): solo se pierde ese.
+    private boolean append(DestroyedStack stack) throws IOException {
+        byte[] name = truncate(stack.username());
+        byte[] item = truncate(stack.itemId());
+        byte[] metadata = stack.metadata() == null ? new byte[0] : stack.metadata().getBytes(StandardCharsets.UTF_8);
+        long body = (long) FIXED_BODY_BYTES + name.length + item.length + metadata.length;
+        if (4 + body > Math.min(segmentBytes - HEADER_BYTES, RUN_BYTES)) {
+            PluginMetrics.Counter.JOURNAL_DROPPED.increment();
+            LOGGER.warning("Registro demasiado grande para el diario: " + body + " bytes (" + stack.itemId() + ")");
+            return false;
+        }
+        if (position + 4 + body > segmentBytes) {
+            flushRun();
+            rotate();
+        } else if (4 + body > run.capacity() - 4 - run.position()) {
+            flushRun();
+        }
+
+        if (run.position() == 0) {
+            runStart = position;
+            runFirstTime = stack.timeMillis();
+        }
+        run.putInt((int) body);
+        run.putLong(stack.timeMillis());
+        run.putLong(stack.player().getMostSignificantBits());
+        run.putLong(stack.player().getLeastSignificantBits());
+        run.putInt(stack.x());
+        run.putInt(stack.y());
+        run.putInt(stack.z());
+        run.putInt(stack.quantity());
+        run.putShort((short) name.length);
+        run.put(name);
+        run.putShort((short) item.length);
+        run.put(item);
+        run.put((byte) 0);
+        run.putDouble(stack.durability());
+        run.putDouble(stack.maxDurability());
+        run.putInt(metadata.length);
+        run.put(metadata);
+        position += (int) (4 + body);
+        return true;
+    }
+
+    // ============================================================
+    // FLUSH RUN: Escribe los registros juntados. La longitud del
+    // primero va a 0 hasta el final, y detras va un 0 de fin (por
+    // si quedaba basura de un cierre a medias): hasta la ultima
+    // escritura, un lector ve el segmento como estaba.
+    // ============================================================
+    private void flushRun() throws IOException {
+        if (run.position() == 0) {
+            return;
+        }
+        int firstLength = run.getInt(0);
+        run.putInt(0, 0);
+        if (position + 4 <= segmentBytes) {
+            run.putInt(0);
+        }
+        run.flip();
+        writeFully(run, runStart);
+
+        if (runStart == HEADER_BYTES) {
+            ByteBuffer firstTime = ByteBuffer.allocate(8).putLong(0, runFirstTime);
+            writeFully(firstTime, FIRST_TIME_OFFSET);
+        }
+        // Ultimo: la longitud "publica" el lote entero
+        writeFully(ByteBuffer.allocate(4).putInt(0, firstLength), runStart);
+        run.clear();
+    }
+
+    private void writeFully(ByteBuffer buf, long at) throws IOException {
+        long p = at;
+        while (buf.hasRemaining()) {
+            p += segment.write(buf, p);
+        }
+    }
+
+    private void rotate() throws IOException {
+        segment.force(false);
+        // Si no se puede abrir el siguiente, se sigue con este (y se reintenta)
+        FileChannel next = openSegment(segmentPath(segmentSeq + 1), true);
+        segment.close();
+        segment = next;
+        segmentSeq++;
+        position = HEADER_BYTES;
+        prune();
+    }
+
+    // Borra los segmentos que sobran. Un fallo se apunta y se reintenta
+    // despues del siguiente lote, sin tocar el lote que se esta escribiendo.
+    private void prune() {
+        boolean failed = false;
+        try {
+            List<Path> files = listSegments();
+            for (int i = 0; i < files.size() - maxSegments; i++) {
+                if (parseSeq(files.get(i)) == segmentSeq) {
+                    break;
+                }
+                try {
+                    Files.deleteIfExists(files.get(i));
+                } catch (IOException e) {
+                    failed = true;
+                    LOGGER.log(Level.WARNING, "No se pudo borrar " + files.get(i).getFileName()
+                        + ", se reintentara: " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            failed = true;
+            LOGGER.log(Level.WARNING, "No se pudo listar el diario de la papelera, se reintentara", e);
+        }
+        pruneFailed = failed;
+    }
+
+    // ============================================================
+    // SEGMENTOS
+    // ============================================================
+    private void openLastSegment() throws IOException {
+        List<Path> files = listSegments();
+        if (files.isEmpty()) {
+            segmentSeq = 1;
+            segment = openSegment(segmentPath(segmentSeq), true);
+            position = HEADER_BYTES;
+            return;
+        }
+
+        Path last = files.get(files.size() - 1);
+        segmentSeq = parseSeq(last);
+        int end = -1;
+        try (FileChannel channel = FileChannel.open(last, StandardOpenOption.READ)) {
+            if (readVersion(channel) == VERSION) {
+                end = forEachRecord(channel, ByteBuffer.allocate(READ_BYTES), (buf, b, length, offset) -> { });
+            }
+        }
+        if (end < 0) {
+            // Segmento corrupto o de otro formato/version: empezar uno nuevo
+            segmentSeq++;
+            segment = openSegment(segmentPath(segmentSeq), true);
+            position = HEADER_BYTES;
+            prune();
+            return;
+        }
+
+        position = end;
+        segment = openSegment(last, false);
+        prune();
+    }
+
+    private FileChannel openSegment(Path file, boolean fresh) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (fresh) {
+            try {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                    .putInt(MAGIC).putInt(VERSION).putLong(0L).flip();
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+                channel.truncate(HEADER_BYTES);
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+        return channel;
+    }
+
+    // VERSION de la cabecera, o -1 si no es un segmento del diario
+    private static int readVersion(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        if (channel.read(header, 0) < HEADER_BYTES || header.getInt(0) != MAGIC) {
+            return -1;
+        }
+        return header.getInt(4);
+    }
+
+    // Un registro completo: su cuerpo empieza en "b" del trozo, y el
+    // trozo empieza en "offset" del archivo
+    private interface RecordVisitor {
+        void visit(ByteBuffer buf, int b, int length, int offset);
+    }
+
+    // ============================================================
+    // FOR EACH RECORD: Lee los registros del segmento por trozos de
+    // buf.capacity() bytes. Un registro que queda cortado al final
+    // del trozo se vuelve a leer entero al principio del siguiente.
+    // Devuelve donde acaba el ultimo registro completo.
+    // ============================================================
+    private static int forEachRecord(FileChannel channel, ByteBuffer buf, RecordVisitor visitor) throws IOException {
+        int offset = HEADER_BYTES;
+        while (true) {
+            buf.clear();
+            long at = offset;
+            int read;
+            while (buf.hasRemaining() && (read = channel.read(buf, at)) > 0) {
+                at += read;
+            }
+            buf.flip();
+            boolean last = buf.limit() < buf.capacity();
+
+            int p = 0;
+            while (p + 4 <= buf.limit()) {
+                int length = buf.getInt(p);
+                if (length <= 0 || 4 + length > buf.capacity()) {
+                    // Fin del segmento (o basura de un cierre a medias)
+                    return offset + p;
+                }
+                if (p + 4 + length > buf.limit()) {
+                    break;
+                }
+                visitor.visit(buf, p + 4, length, offset);
+                p += 4 + length;
+            }
+            if (last || p == 0) {
+                return offset + p;
+            }
+            offset += p;
+        }
+    }
+
+    private void scanSegment(Path file, ByteBuffer buf, byte[] wanted, long fromMillis, long toMillis,
+                             int limit, boolean includeRestored, ArrayDeque<DestroyedStack> found) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int version = readVersion(channel);
+            if (version < 1 || version > VERSION) {
+                return;
+            }
+            long seq = parseSeq(file);
+            forEachRecord(channel, buf, (chunk, b, length, offset) -> {
+                DestroyedStack stack = readRecord(chunk, b, offset, seq, version, wanted,
+                    fromMillis, toMillis, includeRestored);
+                if (stack == null) {
+                    return;
+                }
+                found.addLast(stack);
+                if (found.size() > limit) {
+                    found.removeFirst();
+                }
+            });
+        }
+    }
+
+    // El registro si pasa los filtros, o null
+    private static DestroyedStack readRecord(ByteBuffer buf, int b, int offset, long seq, int version,
+                                             byte[] wanted, long fromMillis, long toMillis,
+                                             boolean includeRestored) {
+        long time = buf.getLong(b);
+        if (time < fromMillis || time > toMillis) {
+            return null;
+        }
+        int nameLength = buf.getShort(b + 40);
+        if (wanted != null && !equalsIgnoreAsciiCase(buf, b + 42, nameLength, wanted)) {
+            return null;
+        }
+
+        int itemLength = buf.getShort(b + 42 + nameLength);
+        long id = DestroyedStack.NO_ID;
+        boolean restored = false;
+        double durability = 0;
+        double maxDurability = 0;
+        String metadata = null;
+        if (version >= 2) {
+            int f = b + 44 + nameLength + itemLength;
+            restored = (buf.get(f) & FLAG_RESTORED) != 0;
+            if (restored && !includeRestored) {
+                return null;
+            }
+            id = (seq << 32) | (offset + f);
+            durability = buf.getDouble(f + 1);
+            maxDurability = buf.getDouble(f + 9);
+            int metadataLength = buf.getInt(f + 17);
+            metadata = metadataLength > 0 ? readString(buf, f + 21, metadataLength) : null;
+        }
+        return new DestroyedStack(
+            id,
+            time,
+            new UUID(buf.getLong(b + 8), buf.getLong(b + 16)),
+            readString(buf, b + 42, nameLength),
+            buf.getInt(b + 24), buf.getInt(b + 28), buf.getInt(b + 32),
+            readString(buf, b + 44 + nameLength, itemLength),
+            buf.getInt(b + 36),
+            durability,
+            maxDurability,
+            metadata,
+            restored
+        );
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(f -> f.getFileName().toString().matches("segment-\\d+\\.bin"))
+                .sorted((a, b) -> Long.compare(parseSeq(a), parseSeq(b)))
+                .toList();
+        }
+    }
+
+    private Path segmentPath(long seq) {
+        return directory.resolve(String.format("segment-%06d.bin", seq));
+    }
+
+    private static long parseSeq(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring("segment-".length(), name.length() - ".bin".length()));
+    }
+
+    private static byte[] truncate(String value) {
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        return bytes.length <= Short.MAX_VALUE ? bytes : Arrays.copyOf(bytes, Short.MAX_VALUE);
+    }
+
+    private static String readString(ByteBuffer buf, int offset, int length) {
+        byte[] bytes = new byte[length];
+        buf.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Compara sin crear Strings; "wanted" ya esta en minusculas
+    private static boolean equalsIgnoreAsciiCase(ByteBuffer buf, int offset, int length, byte[] wanted) {
+        if (length != wanted.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            byte c = buf.get(offset + i);
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            if (c != wanted[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * ============================================================
+ * TUTORIAL: EnchantTableState - BlockState minimo de la mesa
+ * ============================================================
+ *
+ * La Enchant Table no guarda nada: su UI vive en EnchantTablePanel
+ * y sus ofertas salen de la semilla del jugador. Este estado existe
+ * solo para que Hytale nos avise del ciclo de vida del bloque, igual
+ * que con la papelera:
+ *
+ *   initialize() -> colocar la mesa o cargar su chunk -> al indice
+ *   onDestroy()  -> romperla (como sea) o descargar   -> fuera, y
+ *                   se suelta su EnchantTableModel (si alguien la usaba)
+ *
+ * Asi "/tutorial blocks" ve las mesas tambien despues de reiniciar
+ * el servidor, sin recorrer chunks ni escuchar eventos de jugador.
+ *
+ * Sin datos: el CODEC esta vacio, asi que no escribe nada en el
+ * chunk y no hay nada que migrar.
+ *
+ * REGISTRO: En TutorialBlockPlugin.setup():
+ *   getBlockStateRegistry().registerBlockState(
+ *       EnchantTableState.class,
+ *       "Tutorial_Customui_Table",
+ *       EnchantTableState.CODEC
+ *   );
+ *
+ * JSON: El bloque referencia este state con:
+ *   "State": { "Id": "Tutorial_Customui_Table" }
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.blockstate;
+
+import com.hypixel.hytale.codec.builder.BuilderCodec;
+import com.hypixel.hytale.math.vector.Vector3i;
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.meta.BlockState;
+
+import com.scarforges.tutorialblock.registry.TutorialBlocks;
+import com.scarforges.tutorialblock.ui.EnchantTableModel;
+
+public class EnchantTableState extends BlockState {
+
+    public static final BuilderCodec<EnchantTableState> CODEC = BuilderCodec.builder(
+        EnchantTableState.class, EnchantTableState::new
+    ).build();
+
+    @Override
+    public boolean initialize(BlockType blockType) {
+        if (!super.initialize(blockType)) {
+            return false;
+        }
+        Vector3i pos = getBlockPosition();
+        TutorialBlocks.addEnchantTable(getChunk().getWorld(), pos.getX(), pos.getY(), pos.getZ());
+        return true;
+    }
+
+    @Override
+    public void onDestroy() {
+        World world = getChunk().getWorld();
+        Vector3i pos = getBlockPosition();
+        TutorialBlocks.removeEnchantTable(world, pos.getX(), pos.getY(), pos.getZ());
+        EnchantTableModel.remove(world, pos.getX(), pos.getY(), pos.getZ());
+        super.onDestroy();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * ============================================================
+ * TUTORIAL: OccupiedSlots - Que slots del contenedor estan llenos
+ * ============================================================
+ *
+ * Un bitset minimo (un bit por slot) con un contador incremental.
+ * TutorialTrashState lo actualiza desde los eventos de cambio del
+ * ItemContainer, asi que al cerrar:
+ *   - count()        -> numero de stacks en O(1)
+ *   - nextOccupied() -> recorre SOLO los slots ocupados
+ *
+ * No depende de ninguna clase de Hytale, se puede usar (y medir)
+ * fuera del servidor.
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.blockstate;
+
+import java.util.Arrays;
+
+public final class OccupiedSlots {
+
+    private final long[] words;
+    private final int capacity;
+    private int count = 0;
+
+    public OccupiedSlots(int capacity) {
+        this.capacity = capacity;
+        this.words = new long[(capacity + 63) >>> 6];
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public boolean isOccupied(int slot) {
+        return (words[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    // Marca o desmarca un slot. El contador solo cambia si el bit cambia,
+    // asi que llamar dos veces con el mismo valor es inofensivo.
+    public void set(int slot, boolean occupied) {
+        int w = slot >>> 6;
+        long mask = 1L << slot;
+        boolean was = (words[w] & mask) != 0;
+        if (was == occupied) {
+            return;
+        }
+        if (occupied) {
+            words[w] |= mask;
+            count++;
+        } else {
+            words[w] &= ~mask;
+            count--;
+        }
+    }
+
+    // Primer slot ocupado >= from, o -1 si no hay mas.
+    public int nextOccupied(int from) {
+        if (from >= capacity) {
+            return -1;
+        }
+        int w = from >>> 6;
+        long word = words[w] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                int slot = (w << 6) + Long.numberOfTrailingZeros(word);
+                return slot < capacity ? slot : -1;
+            }
+            if (++w == words.length) {
+                return -1;
+            }
+            word = words[w];
+        }
+    }
+
+    public void clearAll() {
+        if (count == 0) {
+            return;
+        }
+        Arrays.fill(words, 0L);
+        count = 0;
+    }
+}
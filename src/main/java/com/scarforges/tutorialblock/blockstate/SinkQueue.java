@@ -0,0 +1,70 @@
+/*
+ * ============================================================
+ * TUTORIAL: SinkQueue - Cola acotada de items por destruir
+ * ============================================================
+ *
+ * La usa TutorialTrashState.sink(): otros mods (granjas, tuberias)
+ * meten lotes desde cualquier hilo y el hilo del mundo los saca
+ * poco a poco, como mucho "max" por pasada.
+ *
+ *   offerAll(lote)  -> acepta hasta llenar la capacidad y devuelve
+ *                      cuantos entraron (el resto sigue siendo del
+ *                      que llama: eso es la contrapresion). Los
+ *                      null se saltan sin contarlos
+ *   poll(max, out)  -> saca hasta "max" elementos en orden de llegada
+ *
+ * No depende de ninguna clase de Hytale.
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.blockstate;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+public final class SinkQueue<T> {
+
+    private final ArrayDeque<T> queue = new ArrayDeque<>();
+    private final int capacity;
+
+    public SinkQueue(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public synchronized int offerAll(Collection<? extends T> items) {
+        int accepted = 0;
+        for (T item : items) {
+            if (queue.size() >= capacity) {
+                break;
+            }
+            if (item == null) {
+                continue;
+            }
+            queue.addLast(item);
+            accepted++;
+        }
+        return accepted;
+    }
+
+    public synchronized int poll(int max, Consumer<? super T> out) {
+        int polled = 0;
+        while (polled < max && !queue.isEmpty()) {
+            out.accept(queue.pollFirst());
+            polled++;
+        }
+        return polled;
+    }
+
+    public synchronized int size() {
+        return queue.size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * ============================================================
+ * TUTORIAL: SlotOwners - Quien metio cada stack
+ * ============================================================
+ *
+ * Con varios jugadores usando la misma papelera, cada slot recuerda
+ * a su depositante (un int por slot, indice en la lista de
+ * depositantes). Se actualiza solo con los slots que cambian, y al
+ * cerrar tally() cuenta los stacks de cada uno recorriendo SOLO los
+ * slots ocupados (OccupiedSlots).
+ *
+ * Generico en el tipo de jugador (PlayerRef en el servidor), asi no
+ * depende de clases de Hytale.
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.blockstate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public final class SlotOwners<P> {
+
+    public static final int NONE = -1;
+
+    private final int[] owners;
+    private final List<P> depositors = new ArrayList<>();
+
+    public SlotOwners(int capacity) {
+        owners = new int[capacity];
+        Arrays.fill(owners, NONE);
+    }
+
+    // El slot pasa a ser de "depositor" (null = desconocido)
+    public void assign(int slot, P depositor) {
+        owners[slot] = depositor == null ? NONE : indexOf(depositor);
+    }
+
+    public void clear(int slot) {
+        owners[slot] = NONE;
+    }
+
+    public P owner(int slot) {
+        int owner = owners[slot];
+        return owner == NONE ? null : depositors.get(owner);
+    }
+
+    public int depositorCount() {
+        return depositors.size();
+    }
+
+    public P depositor(int index) {
+        return depositors.get(index);
+    }
+
+    // Stacks por depositante (mismo indice que depositor(i)); el
+    // ultimo elemento son los stacks sin depositante conocido
+    public int[] tally(OccupiedSlots occupied) {
+        int[] counts = new int[depositors.size() + 1];
+        for (int slot = occupied.nextOccupied(0); slot >= 0; slot = occupied.nextOccupied(slot + 1)) {
+            int owner = owners[slot];
+            counts[owner == NONE ? depositors.size() : owner]++;
+        }
+        return counts;
+    }
+
+    // Solo los slots ocupados tienen dueño (update() limpia los que se
+    // vacian): se recorren esos, no toda la capacidad. Llamar ANTES de
+    // vaciar "occupied".
+    public void reset(OccupiedSlots occupied) {
+        for (int slot = occupied.nextOccupied(0); slot >= 0; slot = occupied.nextOccupied(slot + 1)) {
+            owners[slot] = NONE;
+        }
+        depositors.clear();
+    }
+
+    // Pocos jugadores a la vez: una busqueda lineal basta
+    private int indexOf(P depositor) {
+        for (int i = 0; i < depositors.size(); i++) {
+            if (depositors.get(i).equals(depositor)) {
+                return i;
+            }
+        }
+        depositors.add(depositor);
+        return depositors.size() - 1;
+    }
+}
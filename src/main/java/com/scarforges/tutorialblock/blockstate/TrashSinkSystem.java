@@ -0,0 +1,107 @@
+/*
+ * ============================================================
+ * TUTORIAL: TrashSinkSystem - Vacia las colas de sink()
+ * ============================================================
+ *
+ * Un TickingSystem del ChunkStore: Hytale llama a tick() una vez
+ * por tick y por mundo, en el hilo de ese mundo.
+ *
+ * NO recorre todas las papeleras: solo las que tienen items
+ * pendientes, que se apuntan con schedule() al llamar a sink().
+ * Cada "SinkIntervalTicks" ticks, cada papelera pendiente destruye
+ * como mucho "SinkStacksPerBlock" stacks, asi ninguna se come el tick.
+ * Cuando su cola se vacia, deja de estar pendiente.
+ *
+ * REGISTRO: En TutorialBlockPlugin.setup():
+ *   getChunkStoreRegistry().registerSystem(new TrashSinkSystem());
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.blockstate;
+
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.system.tick.TickingSystem;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.ChunkStore;
+
+import com.scarforges.tutorialblock.TutorialBlockPlugin;
+import com.scarforges.tutorialblock.config.TutorialConfig;
+import com.scarforges.tutorialblock.metrics.PluginMetrics;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class TrashSinkSystem extends TickingSystem<ChunkStore> {
+
+    // Papeleras con cola pendiente, por mundo
+    private static final Map<World, WorldSinks> PENDING = new ConcurrentHashMap<>();
+
+    private static final class WorldSinks {
+        final Set<TutorialTrashState> states = ConcurrentHashMap.newKeySet();
+        int ticks = 0;
+    }
+
+    // Se llama desde sink() (cualquier hilo)
+    static void schedule(World world, TutorialTrashState state) {
+        PENDING.compute(world, (w, sinks) -> {
+            if (sinks == null) {
+                sinks = new WorldSinks();
+            }
+            sinks.states.add(state);
+            return sinks;
+        });
+    }
+
+    // Desde onDestroy() (hilo del mundo): una papelera rota o descargada no se vuelve a visitar
+    static void unschedule(World world, TutorialTrashState state) {
+        PENDING.computeIfPresent(world, (w, sinks) -> {
+            sinks.states.remove(state);
+            return sinks.states.isEmpty() ? null : sinks;
+        });
+    }
+
+    // Numero de papeleras con items pendientes (todos los mundos)
+    public static int pendingBlocks() {
+        int total = 0;
+        for (WorldSinks sinks : PENDING.values()) {
+            total += sinks.states.size();
+        }
+        return total;
+    }
+
+    @Override
+    public void tick(float dt, int systemIndex, Store<ChunkStore> store) {
+        World world = store.getExternalData().getWorld();
+        WorldSinks sinks = PENDING.get(world);
+        if (sinks == null) {
+            return;
+        }
+
+        TutorialBlockPlugin plugin = TutorialBlockPlugin.getInstance();
+        TutorialConfig cfg = plugin != null ? plugin.getConfig() : null;
+        int interval = cfg != null ? cfg.getSinkIntervalTicks() : TutorialConfig.DEFAULT_SINK_INTERVAL_TICKS;
+        int perBlock = cfg != null ? cfg.getSinkStacksPerBlock() : TutorialConfig.DEFAULT_SINK_STACKS_PER_BLOCK;
+        if (++sinks.ticks < interval) {
+            return;
+        }
+        sinks.ticks = 0;
+
+        long start = System.nanoTime();
+        Iterator<TutorialTrashState> it = sinks.states.iterator();
+        while (it.hasNext()) {
+            TutorialTrashState state = it.next();
+            if (!state.drainSink(perBlock)) {
+                it.remove();
+                // Un sink() de otro hilo pudo llegar justo entre medias
+                if (state.hasPendingSink()) {
+                    sinks.states.add(state);
+                }
+            }
+        }
+        // Sin pendientes: el mundo deja de estar en el mapa (atomico con schedule())
+        PENDING.computeIfPresent(world, (w, s) -> s.states.isEmpty() ? null : s);
+        PluginMetrics.Timer.TRASH_SINK.record(System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * ============================================================
+ * TUTORIAL: TrashSlots - Contabilidad de slots de una papelera
+ * ============================================================
+ *
+ * Junta OccupiedSlots (que slots tienen stack) y SlotOwners (quien
+ * lo metio). Es TODO lo que hace TutorialTrashState con los eventos
+ * del contenedor, sin clases de Hytale, asi se puede medir igual
+ * que corre en el servidor:
+ *
+ *   onItemChange -> update(slot, hayStack, depositante)
+ *                   SOLO para los slots que cambio la transaccion
+ *   al cerrar    -> count(), tally(), nextOccupied()... y clearAll()
+ *
+ * Coste: O(slots cambiados) por evento y O(slots ocupados) al
+ * cerrar, sea cual sea la capacidad.
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.blockstate;
+
+public final class TrashSlots<P> {
+
+    private final OccupiedSlots occupied;
+    private final SlotOwners<P> owners;
+
+    public TrashSlots(int capacity) {
+        this.occupied = new OccupiedSlots(capacity);
+        this.owners = new SlotOwners<>(capacity);
+    }
+
+    // Un slot cambio: filled = ahora tiene stack. El ultimo que lo toca se queda con el.
+    public void update(int slot, boolean filled, P depositor) {
+        if (slot < 0 || slot >= occupied.capacity()) {
+            return;
+        }
+        occupied.set(slot, filled);
+        if (filled) {
+            owners.assign(slot, depositor);
+        } else {
+            owners.clear(slot);
+        }
+    }
+
+    public int capacity() {
+        return occupied.capacity();
+    }
+
+    public int count() {
+        return occupied.count();
+    }
+
+    public int nextOccupied(int from) {
+        return occupied.nextOccupied(from);
+    }
+
+    public P owner(int slot) {
+        return owners.owner(slot);
+    }
+
+    // Stacks por depositante (ver SlotOwners.tally)
+    public int[] tally() {
+        return owners.tally(occupied);
+    }
+
+    public int depositorCount() {
+        return owners.depositorCount();
+    }
+
+    public P depositor(int index) {
+        return owners.depositor(index);
+    }
+
+    // Despues de vaciar el contenedor (los dueños primero: recorre los ocupados)
+    public void clearAll() {
+        owners.reset(occupied);
+        occupied.clearAll();
+    }
+}
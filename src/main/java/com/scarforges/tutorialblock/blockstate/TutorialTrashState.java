@@ -6,13 +6,43 @@
  * Este bloque actua como un contenedor (inventario).
  * Cuando el jugador lo abre, puede poner items dentro.
  * Al cerrar el inventario:
- *   1. Cuenta cuantos stacks hay
- *   2. Envia un mensaje al chat con la cantidad
- *   3. Borra todos los items (como una papelera)
+ *   1. Cuenta cuantos stacks metio cada jugador
+ *   2. Envia a CADA depositante un mensaje con sus stacks (y al
+ *      ultimo que cierra, los que no se sabe quien metio)
+ *   3. Apunta cada stack en el diario de auditoria (TrashJournal)
+ *   4. Borra todos los items (como una papelera)
+ *
+ * ATRIBUCION: varios jugadores pueden tener la papelera abierta a la
+ * vez. Al abrir, escuchamos los cambios del inventario de cada uno:
+ * quien acaba de mover items es el "mover". Cuando un slot de la
+ * papelera cambia, pasa a ser suyo (SlotOwners). Si solo hay un
+ * jugador mirando, todo es suyo. Coste: O(cambios), no O(jugadores).
+ *
+ * SINK (sin jugador): otros mods pueden tirar lotes de items con
+ * sink(stacks). No pasan por el contenedor ni por ninguna
+ * ventana: se encolan y TrashSinkSystem los destruye cada pocos
+ * ticks, con un maximo de stacks por bloque y pasada.
+ *
+ * Los slots ocupados (y su depositante) se siguen con TrashSlots,
+ * actualizado desde los eventos de cambio del contenedor con SOLO
+ * los slots que la transaccion dice que cambiaron (ver
+ * forEachModifiedSlot). Contar es O(1) y borrar solo toca los slots
+ * ocupados, aunque la capacidad sea muy grande.
+ *
+ * REGISTRO ESPACIAL: cada papelera se apunta en TutorialBlocks al
+ * inicializarse (colocar o cargar el chunk) y se quita en onDestroy()
+ * (romper o descargar), para "/tutorial blocks".
+ *
+ * CONTENIDO TRANSITORIO: lo que hay dentro de una papelera no se
+ * guarda nunca con el chunk (el CODEC no incluye el contenedor) y
+ * los cambios de slots NO marcan el chunk para guardar. Al cargar,
+ * el contenedor siempre se crea vacio.
  *
  * PATRON: Extiende ItemContainerState (la base de Hytale para
  * bloques con inventario, como cofres y papeleras).
- * Implementa TickableBlockState para ejecutar logica cada tick.
+ * NO implementa TickableBlockState: en vez de comprobar cada tick
+ * si el inventario se cerro, nos suscribimos al evento de cierre
+ * de la ventana. Asi una papelera cerrada no cuesta nada por tick.
  *
  * REGISTRO: En TutorialBlockPlugin.setup():
  *   getBlockStateRegistry().registerBlockState(
@@ -31,124 +61,369 @@
 package com.scarforges.tutorialblock.blockstate;
 
 import com.hypixel.hytale.codec.builder.BuilderCodec;
-import com.hypixel.hytale.component.ArchetypeChunk;
-import com.hypixel.hytale.component.CommandBuffer;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.component.Store;
-import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.event.EventRegistration;
+import com.hypixel.hytale.math.vector.Vector3i;
+import com.hypixel.hytale.server.core.asset.type.blocktype.config.BlockType;
+import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.entity.entities.player.windows.ContainerBlockWindow;
 import com.hypixel.hytale.server.core.inventory.ItemStack;
 import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+import com.hypixel.hytale.server.core.inventory.transaction.ItemStackSlotTransaction;
+import com.hypixel.hytale.server.core.inventory.transaction.ItemStackTransaction;
+import com.hypixel.hytale.server.core.inventory.transaction.ListTransaction;
+import com.hypixel.hytale.server.core.inventory.transaction.SlotTransaction;
+import com.hypixel.hytale.server.core.inventory.transaction.Transaction;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.world.World;
-import com.hypixel.hytale.server.core.universe.world.chunk.state.TickableBlockState;
+import com.hypixel.hytale.server.core.universe.world.chunk.WorldChunk;
 import com.hypixel.hytale.server.core.universe.world.meta.state.ItemContainerState;
-import com.hypixel.hytale.server.core.universe.world.storage.ChunkStore;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 
-import java.awt.Color;
+import com.scarforges.tutorialblock.TutorialBlockPlugin;
+import com.scarforges.tutorialblock.audit.DestroyedStack;
+import com.scarforges.tutorialblock.audit.TrashJournal;
+import com.scarforges.tutorialblock.config.TutorialConfig;
+import com.scarforges.tutorialblock.message.Messages;
+import com.scarforges.tutorialblock.metrics.PluginMetrics;
+import com.scarforges.tutorialblock.registry.TutorialBlocks;
+import com.scarforges.tutorialblock.session.SessionStore;
+
+import org.bson.BsonDocument;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.IntConsumer;
 import java.util.logging.Logger;
 
-public class TutorialTrashState extends ItemContainerState implements TickableBlockState {
+public class TutorialTrashState extends ItemContainerState {
 
     private static final Logger LOGGER = Logger.getLogger("Tutorial-TrashBlock");
 
     // ============================================================
     // CODEC: Necesario para que Hytale sepa crear instancias
     // de esta clase. Solo necesitamos un builder basico.
+    // IMPORTANTE: no extiende ItemContainerState.CODEC a proposito,
+    // asi el contenido del contenedor no se escribe en el chunk.
     // ============================================================
     public static final BuilderCodec<TutorialTrashState> CODEC = BuilderCodec.builder(
         TutorialTrashState.class, TutorialTrashState::new
     ).build();
 
-    // Guardar referencia al ultimo jugador que abrio el inventario
-    private PlayerRef lastPlayer = null;
+    // Jugadores con la papelera abierta ahora mismo
+    private final Map<UUID, PlayerRef> viewers = new LinkedHashMap<>();
+
+    // Ultimo jugador (de viewers) cuyo inventario cambio: el que esta moviendo items
+    private PlayerRef mover = null;
+
+    // Slots ocupados y su depositante (se crea en initialize() con la capacidad real)
+    private TrashSlots<PlayerRef> slots = new TrashSlots<>(0);
 
-    // Tracking: estaba abierto en el tick anterior?
-    private boolean wasOpen = false;
+    // true mientras vaciamos nosotros mismos: ignoramos nuestros propios eventos
+    private boolean clearing = false;
+
+    // Stacks recibidos por sink() pendientes de destruir (acotada por "SinkQueueCapacity")
+    private final SinkQueue<ItemStack> sinkQueue;
+
+    // onDestroy() ya paso: sink() deja de aceptar
+    private volatile boolean destroyed = false;
 
     public TutorialTrashState() {
         super();
+        TutorialBlockPlugin plugin = TutorialBlockPlugin.getInstance();
+        this.sinkQueue = new SinkQueue<>(plugin != null
+            ? plugin.getConfig().getSinkQueueCapacity()
+            : TutorialConfig.DEFAULT_SINK_QUEUE_CAPACITY);
+    }
+
+    // ============================================================
+    // SINK: API para otros mods (granjas, tuberias...). Encola los
+    // stacks para destruirlos en lotes; se puede llamar desde
+    // cualquier hilo. Devuelve cuantos se aceptaron: si la cola esta
+    // llena (o la papelera ya no existe), los que sobran siguen
+    // siendo del que llama. Los null se ignoran y no cuentan.
+    // ============================================================
+    public int sink(Collection<ItemStack> stacks) {
+        WorldChunk chunk = getChunk();
+        if (destroyed || chunk == null) {
+            return 0;
+        }
+        int accepted = sinkQueue.offerAll(stacks);
+        if (accepted > 0) {
+            // El mundo de la papelera, no uno que pase el que llama
+            TrashSinkSystem.schedule(chunk.getWorld(), this);
+        }
+        return accepted;
+    }
+
+    public boolean hasPendingSink() {
+        return !sinkQueue.isEmpty();
+    }
+
+    // ============================================================
+    // DRAIN SINK: Lo llama TrashSinkSystem en el hilo del mundo.
+    // Destruye como mucho "max" stacks y devuelve true si quedan mas.
+    // ============================================================
+    boolean drainSink(int max) {
+        TrashJournal journal = TutorialBlockPlugin.getInstance().getJournal();
+        long now = System.currentTimeMillis();
+        Vector3i pos = getBlockPosition();
+
+        int destroyed = sinkQueue.poll(max, stack -> {
+            if (journal != null) {
+                journal.record(destroyed(now, DestroyedStack.NO_PLAYER, DestroyedStack.SINK_USERNAME, pos, stack));
+            }
+        });
+        PluginMetrics.Counter.TRASH_SINK_STACKS.add(destroyed);
+        PluginMetrics.Counter.TRASH_STACKS_DESTROYED.add(destroyed);
+        return !sinkQueue.isEmpty();
+    }
+
+    // ============================================================
+    // INITIALIZE: ItemContainerState crea aqui el contenedor con la
+    // "Capacity" del JSON (y se suscribe a sus cambios con
+    // onItemChange). Siempre empieza vacio: el CODEC nunca guardo
+    // el contenedor, asi que no hay items que cargar.
+    // ============================================================
+    @Override
+    public boolean initialize(BlockType blockType) {
+        if (!super.initialize(blockType)) {
+            return false;
+        }
+
+        slots = new TrashSlots<>(getItemContainer().getCapacity());
+
+        Vector3i pos = getBlockPosition();
+        TutorialBlocks.addTrash(getChunk().getWorld(), pos.getX(), pos.getY(), pos.getZ(), this);
+        return true;
+    }
+
+    // ============================================================
+    // ON DESTROY: El bloque se rompe o su chunk se descarga.
+    // Solo se quita del registro si la posicion sigue siendo NUESTRA.
+    // ============================================================
+    @Override
+    public void onDestroy() {
+        destroyed = true;
+        World world = getChunk().getWorld();
+        Vector3i pos = getBlockPosition();
+        TutorialBlocks.removeTrash(world, pos.getX(), pos.getY(), pos.getZ(), this);
+
+        // Fuera de TrashSinkSystem y sin cola: lo que quedaba se apunta en el
+        // diario como destruido (igual que lo habria hecho el sistema)
+        TrashSinkSystem.unschedule(world, this);
+        drainSink(Integer.MAX_VALUE);
+        super.onDestroy();
+    }
+
+    // Para "/tutorial blocks" (leer desde el hilo del mundo)
+    public int occupiedSlots() {
+        return slots.count();
+    }
+
+    public int capacity() {
+        return slots.capacity();
+    }
+
+    public int pendingSink() {
+        return sinkQueue.size();
+    }
+
+    // ============================================================
+    // ON ITEM CHANGE: ItemContainerState lo llama en cada cambio del
+    // contenedor y por defecto marca el chunk para guardar. Aqui NO
+    // llamamos a super: el contenido es transitorio. Solo releemos
+    // los slots que la transaccion dice que cambiaron: O(cambios),
+    // no O(capacidad). Un tipo de transaccion que no conocemos cae
+    // al recorrido completo (y se cuenta en trash.slot_scans).
+    // ============================================================
+    @Override
+    public void onItemChange(ItemContainer.ItemContainerChangeEvent event) {
+        if (clearing) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        ItemContainer container = event.container();
+        Transaction transaction = event.transaction();
+        PlayerRef depositor = viewers.size() == 1 ? viewers.values().iterator().next() : mover;
+        IntConsumer reread = slot -> {
+            if (slot >= 0 && slot < slots.capacity()) {
+                slots.update(slot, container.getItemStack((short) slot) != null, depositor);
+            }
+        };
+        if (!forEachModifiedSlot(transaction, reread)) {
+            PluginMetrics.Counter.TRASH_SLOT_SCANS.increment();
+            for (short i = 0; i < slots.capacity(); i++) {
+                if (transaction.wasSlotModified(i)) {
+                    reread.accept(i);
+                }
+            }
+        }
+        PluginMetrics.Timer.TRASH_UPDATE.record(System.nanoTime() - start);
+    }
+
+    // ============================================================
+    // MODIFIED SLOTS: Los slots que toca una transaccion, leidos de
+    // la propia transaccion (un slot, la lista de slots de un stack,
+    // o una lista de transacciones). false = tipo desconocido.
+    // ============================================================
+    private static boolean forEachModifiedSlot(Transaction transaction, IntConsumer out) {
+        if (transaction instanceof SlotTransaction slot) {
+            out.accept(slot.getSlot());
+            return true;
+        }
+        if (transaction instanceof ItemStackTransaction stack) {
+            for (ItemStackSlotTransaction slot : stack.getSlotTransactions()) {
+                out.accept(slot.getSlot());
+            }
+            return true;
+        }
+        if (transaction instanceof ListTransaction<?> list) {
+            for (Transaction child : list.getList()) {
+                if (!forEachModifiedSlot(child, out)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
     }
 
     // ============================================================
     // ON OPEN: Se llama cuando un jugador abre el contenedor.
-    // Guardamos su PlayerRef para poder enviarle mensajes
-    // cuando cierre el inventario.
+    // Lo añadimos a viewers, escuchamos los cambios de SU inventario
+    // (para saber quien deposita) y nos suscribimos al cierre de
+    // SU ventana (getWindows() ya la contiene en este punto).
     // ============================================================
     @Override
     public void onOpen(Ref<EntityStore> ref, World world, Store<EntityStore> store) {
         PlayerRef playerRef = store.getComponent(ref, PlayerRef.getComponentType());
-        if (playerRef != null) {
-            this.lastPlayer = playerRef;
-            // Enviar mensaje de bienvenida al jugador
-            playerRef.sendMessage(Message.join(
-                Message.raw("[Papelera Tutorial] ").color(Color.ORANGE),
-                Message.raw("Contenedor abierto! Los items se contaran al cerrar.").color(Color.WHITE)
-            ));
+        Player player = store.getComponent(ref, Player.getComponentType());
+        if (playerRef == null || player == null) {
+            return;
+        }
+
+        viewers.put(playerRef.getUuid(), playerRef);
+        // Enviar mensaje de bienvenida al jugador (precompilado en Messages)
+        playerRef.sendMessage(Messages.message(Messages.Key.TRASH_OPEN));
+        if (TutorialBlockPlugin.verbose()) {
             LOGGER.info("Trash container abierto por " + playerRef.getUsername());
         }
+
+        ContainerBlockWindow window = getWindows().get(playerRef.getUuid());
+        if (window == null) {
+            LOGGER.warning("No se encontro la ventana de " + playerRef.getUsername());
+            viewers.remove(playerRef.getUuid());
+            return;
+        }
+
+        // Sacar items del inventario del jugador lo marca como "mover"
+        // justo antes de que el stack aparezca en la papelera
+        EventRegistration inventoryListener = player.getInventory().getCombinedEverything()
+            .registerChangeEvent(event -> mover = playerRef);
+
+        // El evento de cierre se dispara mientras Open_Container aun esta
+        // quitando la ventana del mapa. Lo diferimos con world.execute()
+        // para comprobar getWindows() cuando ya este actualizado.
+        window.registerCloseEvent(event -> {
+            inventoryListener.unregister();
+            world.execute(() -> onWindowClosed(playerRef));
+        });
     }
 
     // ============================================================
-    // TICK: Se ejecuta cada tick del servidor (~20 veces/segundo).
-    // Aqui detectamos cuando el inventario pasa de abierto a cerrado
-    // comparando el estado del tick anterior con el actual.
+    // ON WINDOW CLOSED: Se ejecuta en el hilo del mundo cada vez
+    // que un jugador cierra su ventana. Solo vaciamos la papelera
+    // cuando el ULTIMO jugador la cierra.
     // ============================================================
-    @Override
-    public void tick(float dt, int index, ArchetypeChunk<ChunkStore> chunk,
-                     Store<ChunkStore> store, CommandBuffer<ChunkStore> commandBuffer) {
-
-        // getWindows() devuelve Map<UUID, ContainerBlockWindow>
-        // Si esta vacio = nadie tiene el inventario abierto
-        Map<UUID, ContainerBlockWindow> currentWindows = getWindows();
-        boolean isOpen = !currentWindows.isEmpty();
-
-        // Mientras este abierto, actualizar el PlayerRef desde la ventana
-        if (isOpen) {
-            for (ContainerBlockWindow window : currentWindows.values()) {
-                PlayerRef pRef = window.getPlayerRef();
-                if (pRef != null) {
-                    lastPlayer = pRef;
+    private void onWindowClosed(PlayerRef closed) {
+        viewers.remove(closed.getUuid());
+        if (mover == closed) {
+            mover = null;
+        }
+        if (!getWindows().isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        PluginMetrics.Counter.TRASH_CLOSES.increment();
+        ItemContainer container = getItemContainer();
+
+        if (container != null && slots.count() > 0) {
+            // Stacks de cada depositante: solo se recorren los slots ocupados
+            int stackCount = slots.count();
+            int[] counts = slots.tally();
+
+            // Un mensaje para cada depositante con SUS stacks (y sumarlos a su sesion)
+            SessionStore sessions = TutorialBlockPlugin.getInstance().getSessions();
+            for (int i = 0; i < slots.depositorCount(); i++) {
+                if (counts[i] > 0) {
+                    sendSummary(slots.depositor(i), counts[i], sessions);
                 }
             }
-        }
+            // Ultimo elemento de tally(): stacks sin depositante conocido.
+            // Se avisa al ultimo que cerro (el que vacia la papelera)
+            int unknown = counts[slots.depositorCount()];
+            if (unknown > 0 && (sessions == null
+                || !sessions.preference(closed.getUuid(), SessionStore.Preference.QUIET))) {
+                closed.sendMessage(Messages.message(Messages.Key.TRASH_SUMMARY_UNKNOWN, unknown));
+            }
+            if (TutorialBlockPlugin.verbose()) {
+                LOGGER.info("Trash container tenia " + stackCount + " stacks de "
+                    + slots.depositorCount() + " jugador(es), limpiando...");
+            }
+            PluginMetrics.Counter.TRASH_STACKS_DESTROYED.add(stackCount);
 
-        // MOMENTO CLAVE: El inventario se acaba de cerrar
-        // (wasOpen era true en el tick anterior, ahora isOpen es false)
-        if (wasOpen && !isOpen) {
-            ItemContainer container = getItemContainer();
-
-            if (container != null && !container.isEmpty()) {
-                // Contar stacks no vacios
-                int stackCount = 0;
-                for (short i = 0; i < container.getCapacity(); i++) {
-                    ItemStack stack = container.getItemStack(i);
-                    if (stack != null) {
-                        stackCount++;
+            // Borrar todo el contenido (funcion papelera), slot a slot
+            // pero solo los ocupados. Antes de borrar cada stack lo
+            // apuntamos en el diario a nombre de quien lo metio
+            // (solo se encola, no toca el disco).
+            TrashJournal journal = TutorialBlockPlugin.getInstance().getJournal();
+            long now = System.currentTimeMillis();
+            Vector3i pos = getBlockPosition();
+            clearing = true;
+            try {
+                for (int slot = slots.nextOccupied(0); slot >= 0; slot = slots.nextOccupied(slot + 1)) {
+                    ItemStack stack = container.getItemStack((short) slot);
+                    if (journal != null && stack != null) {
+                        PlayerRef owner = slots.owner(slot);
+                        journal.record(destroyed(now,
+                            owner != null ? owner.getUuid() : DestroyedStack.NO_PLAYER,
+                            owner != null ? owner.getUsername() : DestroyedStack.UNKNOWN_USERNAME,
+                            pos, stack));
                     }
+                    container.removeItemStackFromSlot((short) slot);
                 }
+            } finally {
+                clearing = false;
+            }
+        }
 
-                // Enviar mensaje al jugador con el conteo
-                if (lastPlayer != null && stackCount > 0) {
-                    lastPlayer.sendMessage(Message.join(
-                        Message.raw("[Papelera Tutorial] ").color(Color.ORANGE),
-                        Message.raw("Habia ").color(Color.WHITE),
-                        Message.raw(String.valueOf(stackCount)).color(Color.CYAN).bold(true),
-                        Message.raw(" stack(s) en el contenedor! Todo eliminado!").color(Color.WHITE)
-                    ));
-                    LOGGER.info("Trash container tenia " + stackCount + " stacks, limpiando...");;
-                }
+        slots.clearAll();
+        viewers.clear();
+        mover = null;
+        PluginMetrics.Timer.TRASH_CLOSE.record(System.nanoTime() - start);
+    }
 
-                // Borrar todo el contenido (funcion papelera)
-                container.clear();
-            }
+    // Entrada del diario con el stack entero (durabilidad y metadata incluidas)
+    private static DestroyedStack destroyed(long now, UUID player, String username, Vector3i pos, ItemStack stack) {
+        BsonDocument metadata = stack.getMetadata();
+        return new DestroyedStack(now, player, username, pos.getX(), pos.getY(), pos.getZ(),
+            stack.getItemId(), stack.getQuantity(), stack.getDurability(), stack.getMaxDurability(),
+            metadata != null ? metadata.toJson() : null);
+    }
 
-            lastPlayer = null;
+    private void sendSummary(PlayerRef depositor, int stacks, SessionStore sessions) {
+        if (sessions != null) {
+            sessions.add(depositor.getUuid(), SessionStore.Counter.TRASH_STACKS, stacks);
+            if (sessions.preference(depositor.getUuid(), SessionStore.Preference.QUIET)) {
+                return;
+            }
         }
-
-        wasOpen = isOpen;
+        depositor.sendMessage(Messages.message(Messages.Key.TRASH_SUMMARY, stacks));
     }
 }
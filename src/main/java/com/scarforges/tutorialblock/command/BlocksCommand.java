@@ -0,0 +1,133 @@
+/*
+ * ============================================================
+ * TUTORIAL: BlocksCommand - "/tutorial blocks <jugador> [radio]"
+ * ============================================================
+ *
+ * Cuenta las papeleras y Enchant Tables alrededor de un jugador
+ * (en todo su mundo si no hay radio) y como de llenas estan:
+ * slots ocupados, stacks en cola de sink() y jugadores usando
+ * cada mesa. Lee los BlockIndex de TutorialBlocks: solo visita
+ * las celdas del radio, no recorre chunks.
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.command;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.arguments.system.OptionalArg;
+import com.hypixel.hytale.server.core.command.system.arguments.system.RequiredArg;
+import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
+import com.hypixel.hytale.server.core.command.system.basecommands.CommandBase;
+import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.Universe;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import com.scarforges.tutorialblock.blockstate.TutorialTrashState;
+import com.scarforges.tutorialblock.message.Messages;
+import com.scarforges.tutorialblock.metrics.PluginMetrics;
+import com.scarforges.tutorialblock.registry.BlockIndex;
+import com.scarforges.tutorialblock.registry.TutorialBlocks;
+import com.scarforges.tutorialblock.ui.EnchantTableModel;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BlocksCommand extends CommandBase {
+
+    private static final int MAX_LINES = 20;
+
+    private final RequiredArg<String> playerArg =
+        withRequiredArg("player", "Jugador conectado (centro de la busqueda)", ArgTypes.STRING);
+    private final OptionalArg<Integer> radiusArg =
+        withOptionalArg("radius", "Radio en bloques (todo el mundo por defecto)", ArgTypes.INTEGER);
+
+    public BlocksCommand() {
+        super("blocks", "Papeleras y Enchant Tables cerca de un jugador y como de llenas estan");
+    }
+
+    @Override
+    protected void executeSync(@Nonnull CommandContext context) {
+        String name = context.get(playerArg);
+        Integer radius = context.get(radiusArg);
+        PlayerRef target = null;
+        for (PlayerRef online : Universe.get().getPlayers()) {
+            if (online.getUsername().equalsIgnoreCase(name)) {
+                target = online;
+                break;
+            }
+        }
+        Ref<EntityStore> ref = target != null ? target.getReference() : null;
+        if (ref == null) {
+            context.sendMessage(Messages.message(Messages.Key.CMD_NOT_ONLINE, name));
+            return;
+        }
+
+        // Los estados de las papeleras solo se leen desde el hilo del mundo
+        Store<EntityStore> store = ref.getStore();
+        World world = store.getExternalData().getWorld();
+        world.execute(() -> {
+            TransformComponent transform = store.getComponent(ref, TransformComponent.getComponentType());
+            if (transform == null) {
+                return;
+            }
+            Vector3d center = transform.getPosition();
+            int cx = (int) Math.floor(center.getX());
+            int cy = (int) Math.floor(center.getY());
+            int cz = (int) Math.floor(center.getZ());
+
+            long start = System.nanoTime();
+            int[] trash = new int[4];   // bloques, con items, slots ocupados, en cola
+            int[] tables = new int[2];  // bloques, jugadores usandolas
+            List<Message> lines = new ArrayList<>();
+
+            BlockIndex.Visitor<TutorialTrashState> onTrash = (x, y, z, state) -> {
+                trash[0]++;
+                int filled = state.occupiedSlots();
+                if (filled > 0) {
+                    trash[1]++;
+                }
+                trash[2] += filled;
+                trash[3] += state.pendingSink();
+                if (lines.size() < MAX_LINES) {
+                    lines.add(Messages.message(Messages.Key.BLOCKS_TRASH_LINE,
+                        x, y, z, filled, state.capacity(), state.pendingSink()));
+                }
+            };
+            BlockIndex.Visitor<Object> onTable = (x, y, z, marker) -> {
+                int viewers = EnchantTableModel.viewersAt(world, x, y, z);
+                tables[0]++;
+                tables[1] += viewers;
+                if (lines.size() < MAX_LINES) {
+                    lines.add(Messages.message(Messages.Key.BLOCKS_TABLE_LINE, x, y, z, viewers));
+                }
+            };
+
+            if (radius != null) {
+                TutorialBlocks.trash(world).forEachInRadius(cx, cy, cz, radius, onTrash);
+                TutorialBlocks.enchantTables(world).forEachInRadius(cx, cy, cz, radius, onTable);
+            } else {
+                TutorialBlocks.trash(world).forEach(onTrash);
+                TutorialBlocks.enchantTables(world).forEach(onTable);
+            }
+            long nanos = System.nanoTime() - start;
+            PluginMetrics.Timer.BLOCKS_QUERY.record(nanos);
+
+            long micros = nanos / 1000;
+            context.sendMessage(radius != null
+                ? Messages.message(Messages.Key.BLOCKS_HEADER_RADIUS, world.getName(), radius, name, micros)
+                : Messages.message(Messages.Key.BLOCKS_HEADER, world.getName(), micros));
+            context.sendMessage(Messages.message(Messages.Key.BLOCKS_TRASH, trash[0], trash[1], trash[2], trash[3]));
+            context.sendMessage(Messages.message(Messages.Key.BLOCKS_TABLES, tables[0], tables[1]));
+            for (Message line : lines) {
+                context.sendMessage(line);
+            }
+        });
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * ============================================================
+ * TUTORIAL: CraftableCommand - "/tutorial craftable <jugador>"
+ * ============================================================
+ *
+ * Lista las recetas de la TutorialCraftBench que el jugador puede
+ * craftear AHORA con lo que lleva en el inventario. Usa el
+ * RecipeIndex de CraftBenchRecipes (no recorre todas las recetas).
+ * El total es el real; solo se listan las primeras MAX_LINES.
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.command;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.arguments.system.RequiredArg;
+import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
+import com.hypixel.hytale.server.core.command.system.basecommands.CommandBase;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.Universe;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import com.scarforges.tutorialblock.crafting.CraftBenchRecipes;
+import com.scarforges.tutorialblock.crafting.RecipeIndex;
+import com.scarforges.tutorialblock.message.Messages;
+import com.scarforges.tutorialblock.metrics.PluginMetrics;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+
+public class CraftableCommand extends CommandBase {
+
+    private static final int MAX_LINES = 20;
+
+    private final RequiredArg<String> playerArg =
+        withRequiredArg("player", "Jugador conectado", ArgTypes.STRING);
+
+    public CraftableCommand() {
+        super("craftable", "Recetas de la Craft Table que un jugador puede craftear ahora");
+    }
+
+    @Override
+    protected void executeSync(@Nonnull CommandContext context) {
+        String name = context.get(playerArg);
+        PlayerRef target = null;
+        for (PlayerRef online : Universe.get().getPlayers()) {
+            if (online.getUsername().equalsIgnoreCase(name)) {
+                target = online;
+                break;
+            }
+        }
+        Ref<EntityStore> ref = target != null ? target.getReference() : null;
+        if (ref == null) {
+            context.sendMessage(Messages.message(Messages.Key.CMD_NOT_ONLINE, name));
+            return;
+        }
+
+        // El inventario solo se lee desde el hilo del mundo del jugador
+        Store<EntityStore> store = ref.getStore();
+        World world = store.getExternalData().getWorld();
+        world.execute(() -> {
+            Player player = store.getComponent(ref, Player.getComponentType());
+            if (player == null) {
+                return;
+            }
+
+            long start = System.nanoTime();
+            Map<String, Integer> inventory =
+                CraftBenchRecipes.countInventory(player.getInventory().getCombinedHotbarFirst());
+            RecipeIndex.Craftable recipes = CraftBenchRecipes.index().craftable(inventory, MAX_LINES);
+            PluginMetrics.Timer.CRAFT_QUERY.record(System.nanoTime() - start);
+
+            context.sendMessage(Messages.message(Messages.Key.CRAFTABLE_HEADER,
+                name, recipes.total(), CraftBenchRecipes.index().size()));
+            for (String recipe : recipes.ids()) {
+                context.sendMessage(Messages.message(Messages.Key.CMD_LINE, recipe));
+            }
+        });
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * ============================================================
+ * TUTORIAL: DumpStatsCommand - "/tutorial dump"
+ * ============================================================
+ *
+ * Escribe las metricas en el archivo "MetricsFile" de la config
+ * (dentro de la carpeta de datos del plugin).
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.command;
+
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.basecommands.CommandBase;
+
+import com.scarforges.tutorialblock.TutorialBlockPlugin;
+import com.scarforges.tutorialblock.message.Messages;
+import com.scarforges.tutorialblock.metrics.PluginMetrics;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.file.Path;
+
+public class DumpStatsCommand extends CommandBase {
+
+    public DumpStatsCommand() {
+        super("dump", "Vuelca las metricas del plugin a un archivo");
+    }
+
+    @Override
+    protected void executeSync(@Nonnull CommandContext context) {
+        Path file = TutorialBlockPlugin.getInstance().getMetricsFile();
+        try {
+            PluginMetrics.dump(file);
+            context.sendMessage(Messages.message(Messages.Key.DUMP_SAVED, file));
+        } catch (IOException e) {
+            context.sendMessage(Messages.message(Messages.Key.DUMP_ERROR, e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * ============================================================
+ * TUTORIAL: QuietCommand - "/tutorial quiet <jugador> <true|false>"
+ * ============================================================
+ *
+ * Activa o desactiva la preferencia QUIET de un jugador en
+ * SessionStore: con ella, la mesa y la papelera no le escriben
+ * en el chat. Se guarda con el resto de su sesion.
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.command;
+
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.arguments.system.RequiredArg;
+import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
+import com.hypixel.hytale.server.core.command.system.basecommands.CommandBase;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.Universe;
+
+import com.scarforges.tutorialblock.TutorialBlockPlugin;
+import com.scarforges.tutorialblock.message.Messages;
+import com.scarforges.tutorialblock.session.SessionStore;
+
+import javax.annotation.Nonnull;
+
+public class QuietCommand extends CommandBase {
+
+    private final RequiredArg<String> playerArg =
+        withRequiredArg("player", "Jugador conectado", ArgTypes.STRING);
+    private final RequiredArg<Boolean> quietArg =
+        withRequiredArg("quiet", "true = sin mensajes de chat", ArgTypes.BOOLEAN);
+
+    public QuietCommand() {
+        super("quiet", "Activa o desactiva los mensajes de chat de los bloques para un jugador");
+    }
+
+    @Override
+    protected void executeSync(@Nonnull CommandContext context) {
+        SessionStore sessions = TutorialBlockPlugin.getInstance().getSessions();
+        if (sessions == null) {
+            context.sendMessage(Messages.message(Messages.Key.CMD_SESSIONS_UNAVAILABLE));
+            return;
+        }
+
+        String name = context.get(playerArg);
+        PlayerRef target = null;
+        for (PlayerRef online : Universe.get().getPlayers()) {
+            if (online.getUsername().equalsIgnoreCase(name)) {
+                target = online;
+                break;
+            }
+        }
+        if (target == null) {
+            context.sendMessage(Messages.message(Messages.Key.CMD_NOT_ONLINE, name));
+            return;
+        }
+
+        boolean quiet = context.get(quietArg);
+        sessions.setPreference(target.getUuid(), SessionStore.Preference.QUIET, quiet);
+        context.sendMessage(Messages.message(quiet ? Messages.Key.QUIET_ON : Messages.Key.QUIET_OFF,
+            target.getUsername()));
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * ============================================================
+ * TUTORIAL: StatsCommand - "/tutorial stats"
+ * ============================================================
+ *
+ * Envia al que ejecuta el comando una linea por metrica de
+ * PluginMetrics (contadores + tiempos p50/p99/max).
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.command;
+
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.basecommands.CommandBase;
+
+import com.scarforges.tutorialblock.message.Messages;
+import com.scarforges.tutorialblock.metrics.PluginMetrics;
+
+import javax.annotation.Nonnull;
+
+public class StatsCommand extends CommandBase {
+
+    public StatsCommand() {
+        super("stats", "Muestra las metricas del plugin");
+    }
+
+    @Override
+    protected void executeSync(@Nonnull CommandContext context) {
+        context.sendMessage(Messages.message(Messages.Key.STATS_HEADER));
+        for (String line : PluginMetrics.report()) {
+            context.sendMessage(Messages.message(Messages.Key.CMD_LINE, line));
+        }
+    }
+}
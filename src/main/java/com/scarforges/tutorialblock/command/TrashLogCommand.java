@@ -0,0 +1,93 @@
+/*
+ * ============================================================
+ * TUTORIAL: TrashLogCommand - "/tutorial trashlog <jugador> [min]"
+ * ============================================================
+ *
+ * Lista los ultimos stacks que las papeleras destruyeron para un
+ * jugador en los ultimos N minutos (60 por defecto), leyendo el
+ * TrashJournal. Usa "*" como jugador para ver todos.
+ *
+ * La lectura del diario va al PluginExecutor (nunca en el hilo del
+ * mundo) y la respuesta vuelve al hilo del mundo del jugador si esta
+ * conectado, o al del mundo por defecto.
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.command;
+
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.arguments.system.OptionalArg;
+import com.hypixel.hytale.server.core.command.system.arguments.system.RequiredArg;
+import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
+import com.hypixel.hytale.server.core.command.system.basecommands.CommandBase;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.Universe;
+import com.hypixel.hytale.server.core.universe.world.World;
+
+import com.scarforges.tutorialblock.TutorialBlockPlugin;
+import com.scarforges.tutorialblock.audit.DestroyedStack;
+import com.scarforges.tutorialblock.audit.TrashJournal;
+import com.scarforges.tutorialblock.message.Messages;
+import com.scarforges.tutorialblock.task.PluginExecutor;
+
+import javax.annotation.Nonnull;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class TrashLogCommand extends CommandBase {
+
+    private static final int MAX_LINES = 20;
+
+    private final RequiredArg<String> playerArg =
+        withRequiredArg("player", "Jugador (o * para todos)", ArgTypes.STRING);
+    private final OptionalArg<Integer> minutesArg =
+        withOptionalArg("minutes", "Minutos hacia atras (60 por defecto)", ArgTypes.INTEGER);
+
+    public TrashLogCommand() {
+        super("trashlog", "Muestra los items destruidos por las papeleras");
+    }
+
+    @Override
+    protected void executeSync(@Nonnull CommandContext context) {
+        TrashJournal journal = TutorialBlockPlugin.getInstance().getJournal();
+        PluginExecutor tasks = TutorialBlockPlugin.getInstance().getExecutor();
+        if (journal == null || tasks == null) {
+            context.sendMessage(Messages.message(Messages.Key.CMD_JOURNAL_UNAVAILABLE));
+            return;
+        }
+
+        String player = context.get(playerArg);
+        Integer minutes = context.get(minutesArg);
+        long to = System.currentTimeMillis();
+        long from = to - TimeUnit.MINUTES.toMillis(minutes != null ? minutes : 60);
+
+        String username = "*".equals(player) ? null : player;
+        boolean queued = tasks.submit(() -> journal.query(username, from, to, MAX_LINES, true), replyWorld(player),
+            stacks -> print(context, stacks),
+            error -> context.sendMessage(Messages.message(Messages.Key.CMD_JOURNAL_ERROR, error.getMessage())));
+        if (!queued) {
+            context.sendMessage(Messages.message(Messages.Key.CMD_BUSY));
+        }
+    }
+
+    // Mundo del jugador si esta conectado; si no (o con "*"), el mundo por defecto
+    private static World replyWorld(String name) {
+        for (PlayerRef online : Universe.get().getPlayers()) {
+            if (online.getUsername().equalsIgnoreCase(name) && online.getReference() != null) {
+                return online.getReference().getStore().getExternalData().getWorld();
+            }
+        }
+        return Universe.get().getDefaultWorld();
+    }
+
+    // Hilo del mundo
+    private static void print(CommandContext context, List<DestroyedStack> stacks) {
+        context.sendMessage(Messages.message(Messages.Key.TRASHLOG_HEADER, stacks.size()));
+        for (DestroyedStack s : stacks) {
+            Messages.Key line = s.restored() ? Messages.Key.TRASHLOG_LINE_RESTORED : Messages.Key.TRASHLOG_LINE;
+            context.sendMessage(Messages.message(line, Instant.ofEpochMilli(s.timeMillis()),
+                s.username(), s.quantity(), s.itemId(), s.x(), s.y(), s.z()));
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * ============================================================
+ * TUTORIAL: TrashRestoreCommand - "/tutorial trashrestore <jugador> <min>"
+ * ============================================================
+ *
+ * Devuelve al jugador (debe estar conectado) los stacks que las
+ * papeleras le destruyeron en los ultimos N minutos, tal cual se
+ * tiraron (durabilidad y metadata incluidas).
+ *
+ *   1. Executor: query() + claim() en el diario. claim() marca las
+ *      entradas como devueltas ANTES de entregarlas: ejecutarlo dos
+ *      veces (o dos admins a la vez) no duplica items.
+ *   2. Hilo del mundo (PluginExecutor.submit con handoff; si el
+ *      diario falla el error llega tambien a este hilo): se meten
+ *      en el inventario. Lo que no cabe:
+ *        - stack entero: release(), sigue en el diario para otra vez
+ *        - parte:        lo que sobra se apunta como entrada nueva
+ *      y se avisa al que ejecuto el comando.
+ *
+ * Las entradas de segmentos antiguos (VERSION 1) no tienen marca ni
+ * el stack entero: se listan con trashlog pero no se devuelven.
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.command;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.arguments.system.RequiredArg;
+import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
+import com.hypixel.hytale.server.core.command.system.basecommands.CommandBase;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.Universe;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import com.scarforges.tutorialblock.TutorialBlockPlugin;
+import com.scarforges.tutorialblock.audit.DestroyedStack;
+import com.scarforges.tutorialblock.audit.TrashJournal;
+import com.scarforges.tutorialblock.message.Messages;
+import com.scarforges.tutorialblock.task.PluginExecutor;
+
+import org.bson.BsonDocument;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class TrashRestoreCommand extends CommandBase {
+
+    private static final Logger LOGGER = Logger.getLogger("Tutorial-TrashRestore");
+
+    private static final int MAX_STACKS = 256;
+
+    private final RequiredArg<String> playerArg =
+        withRequiredArg("player", "Jugador conectado", ArgTypes.STRING);
+    private final RequiredArg<Integer> minutesArg =
+        withRequiredArg("minutes", "Minutos hacia atras", ArgTypes.INTEGER);
+
+    public TrashRestoreCommand() {
+        super("trashrestore", "Devuelve a un jugador los items destruidos por las papeleras");
+    }
+
+    @Override
+    protected void executeSync(@Nonnull CommandContext context) {
+        TrashJournal journal = TutorialBlockPlugin.getInstance().getJournal();
+        PluginExecutor tasks = TutorialBlockPlugin.getInstance().getExecutor();
+        if (journal == null || tasks == null) {
+            context.sendMessage(Messages.message(Messages.Key.CMD_JOURNAL_UNAVAILABLE));
+            return;
+        }
+
+        String name = context.get(playerArg);
+        PlayerRef target = null;
+        for (PlayerRef online : Universe.get().getPlayers()) {
+            if (online.getUsername().equalsIgnoreCase(name)) {
+                target = online;
+                break;
+            }
+        }
+        Ref<EntityStore> ref = target != null ? target.getReference() : null;
+        if (ref == null) {
+            context.sendMessage(Messages.message(Messages.Key.CMD_NOT_ONLINE, name));
+            return;
+        }
+
+        long to = System.currentTimeMillis();
+        long from = to - TimeUnit.MINUTES.toMillis(context.get(minutesArg));
+
+        // Leer y marcar en el executor; el inventario solo desde el hilo del mundo del jugador
+        Store<EntityStore> store = ref.getStore();
+        World world = store.getExternalData().getWorld();
+        boolean queued = tasks.submit(() -> journal.claim(journal.query(name, from, to, MAX_STACKS, false)), world,
+            claimed -> give(context, journal, tasks, store, ref, name, claimed),
+            error -> context.sendMessage(Messages.message(Messages.Key.CMD_JOURNAL_ERROR, error.getMessage())));
+        if (!queued) {
+            context.sendMessage(Messages.message(Messages.Key.CMD_BUSY));
+        }
+    }
+
+    // Hilo del mundo
+    private static void give(CommandContext context, TrashJournal journal, PluginExecutor tasks,
+                             Store<EntityStore> store, Ref<EntityStore> ref, String name,
+                             List<DestroyedStack> claimed) {
+        if (claimed.isEmpty()) {
+            context.sendMessage(Messages.message(Messages.Key.RESTORE_NOTHING, name));
+            return;
+        }
+        Player player = ref.isValid() ? store.getComponent(ref, Player.getComponentType()) : null;
+        if (player == null) {
+            unclaim(journal, tasks, claimed);
+            context.sendMessage(Messages.message(Messages.Key.RESTORE_DISCONNECTED, name));
+            return;
+        }
+
+        ItemContainer inventory = player.getInventory().getCombinedHotbarFirst();
+        List<DestroyedStack> notGiven = new ArrayList<>();
+        int given = 0;
+        int partial = 0;
+        long now = System.currentTimeMillis();
+        for (DestroyedStack s : claimed) {
+            ItemStack remainder = inventory.addItemStack(toItemStack(s)).getRemainder();
+            int left = remainder == null || remainder.isEmpty() ? 0 : remainder.getQuantity();
+            if (left == 0) {
+                given++;
+            } else if (left >= s.quantity()) {
+                notGiven.add(s);
+            } else {
+                // Entregado en parte: lo que sobra vuelve al diario como entrada nueva
+                given++;
+                partial++;
+                journal.record(s.withQuantity(now, left));
+            }
+        }
+        unclaim(journal, tasks, notGiven);
+
+        context.sendMessage(Messages.message(Messages.Key.RESTORE_DONE, given, name));
+        if (!notGiven.isEmpty() || partial > 0) {
+            context.sendMessage(Messages.message(Messages.Key.RESTORE_PENDING, notGiven.size(), partial));
+        }
+    }
+
+    private static void unclaim(TrashJournal journal, PluginExecutor tasks, List<DestroyedStack> stacks) {
+        if (stacks.isEmpty()) {
+            return;
+        }
+        tasks.submit(() -> {
+            journal.release(stacks);
+            return null;
+        }).whenComplete((ignored, error) -> {
+            if (error != null) {
+                LOGGER.log(Level.WARNING, stacks.size() + " entrada(s) del diario quedaron marcadas sin devolver", error);
+            }
+        });
+    }
+
+    private static ItemStack toItemStack(DestroyedStack s) {
+        BsonDocument metadata = s.metadata() != null ? BsonDocument.parse(s.metadata()) : null;
+        return new ItemStack(s.itemId(), s.quantity(), s.durability(), s.maxDurability(), metadata);
+    }
+}
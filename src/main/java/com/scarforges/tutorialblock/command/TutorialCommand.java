@@ -0,0 +1,40 @@
+/*
+ * ============================================================
+ * TUTORIAL: TutorialCommand - Comando de administracion
+ * ============================================================
+ *
+ * Comando raiz "/tutorial" que agrupa los subcomandos del plugin:
+ *
+ *   /tutorial stats  -> muestra contadores y tiempos en el chat
+ *   /tutorial dump   -> vuelca las metricas a un archivo local
+ *   /tutorial trashlog <jugador> [min]    -> items destruidos
+ *   /tutorial trashrestore <jugador> <min> -> devolverlos
+ *   /tutorial craftable <jugador>         -> recetas de la Craft Table
+ *   /tutorial quiet <jugador> <true|false> -> sin mensajes de chat
+ *   /tutorial blocks <jugador> [radio]    -> papeleras y mesas cercanas
+ *
+ * Como todos los comandos de plugins, requiere permiso (los
+ * operadores lo tienen por defecto).
+ *
+ * REGISTRO: En TutorialBlockPlugin.setup():
+ *   getCommandRegistry().registerCommand(new TutorialCommand());
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.command;
+
+import com.hypixel.hytale.server.core.command.system.basecommands.AbstractCommandCollection;
+
+public class TutorialCommand extends AbstractCommandCollection {
+
+    public TutorialCommand() {
+        super("tutorial", "Herramientas de administracion de TutorialCustomBlock");
+        addSubCommand(new StatsCommand());
+        addSubCommand(new DumpStatsCommand());
+        addSubCommand(new TrashLogCommand());
+        addSubCommand(new TrashRestoreCommand());
+        addSubCommand(new CraftableCommand());
+        addSubCommand(new QuietCommand());
+        addSubCommand(new BlocksCommand());
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * ============================================================
+ * TUTORIAL: TutorialConfig - Configuracion del plugin
+ * ============================================================
+ *
+ * Se carga con withConfig() en el constructor del plugin y se
+ * guarda en la carpeta de datos del plugin (TutorialConfig.json).
+ * Si el archivo no existe, se crea con los valores por defecto.
+ *
+ *   "VerboseLogging": true/false -> log INFO por cada apertura,
+ *                                   click y cierre (por defecto no)
+ *   "MetricsFile": "metrics.txt" -> donde vuelca "/tutorial dump"
+ *   "JournalSegmentKb": 4096     -> tamaño de cada segmento del diario
+ *                                   (entre 128 y 65536)
+ *   "JournalMaxSegments": 32     -> segmentos que se conservan (rotacion)
+ *   "SinkQueueCapacity": 4096    -> stacks que caben en la cola de sink()
+ *                                   de cada papelera
+ *   "SinkIntervalTicks": 5       -> cada cuantos ticks se vacian las colas
+ *   "SinkStacksPerBlock": 64     -> maximo de stacks por papelera y pasada
+ *   "SessionFile": "sessions.bin" -> datos por jugador (SessionStore)
+ *   "SessionMaxOffline": 1024    -> jugadores desconectados en memoria
+ *   "SessionFlushSeconds": 30    -> cada cuanto se guardan a disco
+ *   "TaskQueueCapacity": 1024    -> tareas pendientes del PluginExecutor
+ *   "Language": "es"             -> idioma de los mensajes (messages/<idioma>.properties)
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.config;
+
+import com.hypixel.hytale.codec.Codec;
+import com.hypixel.hytale.codec.KeyedCodec;
+import com.hypixel.hytale.codec.builder.BuilderCodec;
+
+public class TutorialConfig {
+
+    public static final int DEFAULT_SINK_QUEUE_CAPACITY = 4096;
+    public static final int DEFAULT_SINK_INTERVAL_TICKS = 5;
+    public static final int DEFAULT_SINK_STACKS_PER_BLOCK = 64;
+    public static final String DEFAULT_LANGUAGE = "es";
+
+    // Un segmento tiene que caber al menos un registro con nombres largos,
+    // y el maximo deja "Kb * 1024" muy lejos de Integer.MAX_VALUE
+    public static final int MIN_JOURNAL_SEGMENT_KB = 128;
+    public static final int MAX_JOURNAL_SEGMENT_KB = 65_536;
+
+    private boolean verboseLogging = false;
+    private String metricsFile = "metrics.txt";
+    private int journalSegmentKb = 4096;
+    private int journalMaxSegments = 32;
+    private int sinkQueueCapacity = DEFAULT_SINK_QUEUE_CAPACITY;
+    private int sinkIntervalTicks = DEFAULT_SINK_INTERVAL_TICKS;
+    private int sinkStacksPerBlock = DEFAULT_SINK_STACKS_PER_BLOCK;
+    private String sessionFile = "sessions.bin";
+    private int sessionMaxOffline = 1024;
+    private int sessionFlushSeconds = 30;
+    private int taskQueueCapacity = 1024;
+    private String language = DEFAULT_LANGUAGE;
+
+    public TutorialConfig() {
+    }
+
+    // ============================================================
+    // CODEC: Mismo patron que EventActionData, un append() por campo.
+    // ============================================================
+    @SuppressWarnings("unchecked")
+    public static final BuilderCodec<TutorialConfig> CODEC = ((BuilderCodec.Builder<TutorialConfig>)
+        BuilderCodec.builder(TutorialConfig.class, TutorialConfig::new)
+            .append(
+                new KeyedCodec<>("VerboseLogging", Codec.BOOLEAN),
+                (obj, val) -> obj.verboseLogging = val,
+                obj -> obj.verboseLogging
+            )
+            .add()
+            .append(
+                new KeyedCodec<>("MetricsFile", Codec.STRING),
+                (obj, val) -> obj.metricsFile = val,
+                obj -> obj.metricsFile
+            )
+            .add()
+            .append(
+                new KeyedCodec<>("JournalSegmentKb", Codec.INTEGER),
+                (obj, val) -> obj.journalSegmentKb = val,
+                obj -> obj.journalSegmentKb
+            )
+            .add()
+            .append(
+                new KeyedCodec<>("JournalMaxSegments", Codec.INTEGER),
+                (obj, val) -> obj.journalMaxSegments = val,
+                obj -> obj.journalMaxSegments
+            )
+            .add()
+            .append(
+                new KeyedCodec<>("SinkQueueCapacity", Codec.INTEGER),
+                (obj, val) -> obj.sinkQueueCapacity = val,
+                obj -> obj.sinkQueueCapacity
+            )
+            .add()
+            .append(
+                new KeyedCodec<>("SinkIntervalTicks", Codec.INTEGER),
+                (obj, val) -> obj.sinkIntervalTicks = val,
+                obj -> obj.sinkIntervalTicks
+            )
+            .add()
+            .append(
+                new KeyedCodec<>("SinkStacksPerBlock", Codec.INTEGER),
+                (obj, val) -> obj.sinkStacksPerBlock = val,
+                obj -> obj.sinkStacksPerBlock
+            )
+            .add()
+            .append(
+                new KeyedCodec<>("SessionFile", Codec.STRING),
+                (obj, val) -> obj.sessionFile = val,
+                obj -> obj.sessionFile
+            )
+            .add()
+            .append(
+                new KeyedCodec<>("SessionMaxOffline", Codec.INTEGER),
+                (obj, val) -> obj.sessionMaxOffline = val,
+                obj -> obj.sessionMaxOffline
+            )
+            .add()
+            .append(
+                new KeyedCodec<>("SessionFlushSeconds", Codec.INTEGER),
+                (obj, val) -> obj.sessionFlushSeconds = val,
+                obj -> obj.sessionFlushSeconds
+            )
+            .add()
+            .append(
+                new KeyedCodec<>("TaskQueueCapacity", Codec.INTEGER),
+                (obj, val) -> obj.taskQueueCapacity = val,
+                obj -> obj.taskQueueCapacity
+            )
+            .add()
+            .append(
+                new KeyedCodec<>("Language", Codec.STRING),
+                (obj, val) -> obj.language = val,
+                obj -> obj.language
+            )
+            .add())
+        .build();
+
+    public boolean isVerboseLogging() {
+        return verboseLogging;
+    }
+
+    public String getMetricsFile() {
+        return metricsFile;
+    }
+
+    public int getJournalSegmentKb() {
+        return Math.max(MIN_JOURNAL_SEGMENT_KB, Math.min(MAX_JOURNAL_SEGMENT_KB, journalSegmentKb));
+    }
+
+    public int getJournalSegmentBytes() {
+        return getJournalSegmentKb() * 1024;
+    }
+
+    public int getJournalMaxSegments() {
+        return journalMaxSegments;
+    }
+
+    public int getSinkQueueCapacity() {
+        return Math.max(1, sinkQueueCapacity);
+    }
+
+    public int getSinkIntervalTicks() {
+        return Math.max(1, sinkIntervalTicks);
+    }
+
+    public int getSinkStacksPerBlock() {
+        return Math.max(1, sinkStacksPerBlock);
+    }
+
+    public String getSessionFile() {
+        return sessionFile;
+    }
+
+    public int getSessionMaxOffline() {
+        return Math.max(0, sessionMaxOffline);
+    }
+
+    public int getSessionFlushSeconds() {
+        return Math.max(1, sessionFlushSeconds);
+    }
+
+    public int getTaskQueueCapacity() {
+        return Math.max(1, taskQueueCapacity);
+    }
+
+    public String getLanguage() {
+        return language != null && !language.isBlank() ? language : DEFAULT_LANGUAGE;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * ============================================================
+ * TUTORIAL: CraftBenchRecipes - Recetas de la TutorialCraftBench
+ * ============================================================
+ *
+ * La Craft Table sigue usando la UI nativa de Hytale, pero el plugin
+ * mantiene un RecipeIndex con las recetas que piden esta mesa
+ * ("BenchRequirement" con Id "TutorialCraftBench"):
+ *
+ *   - rebuild()  -> en start(), con todas las recetas ya cargadas
+ *   - LoadedAssetsEvent<CraftingRecipe>  -> put() de cada receta
+ *   - RemovedAssetsEvent<CraftingRecipe> -> remove() de cada id
+ *
+ * Asi una recarga de assets solo toca las recetas que cambian.
+ *
+ * Ingredientes: por item ("Ingredient_Stick") o por tipo de recurso
+ * ("#Wood"). countInventory() cuenta ambos para cada stack.
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.crafting;
+
+import com.hypixel.hytale.assetstore.event.LoadedAssetsEvent;
+import com.hypixel.hytale.assetstore.event.RemovedAssetsEvent;
+import com.hypixel.hytale.event.EventRegistry;
+import com.hypixel.hytale.protocol.BenchRequirement;
+import com.hypixel.hytale.server.core.asset.type.item.config.CraftingRecipe;
+import com.hypixel.hytale.server.core.asset.type.item.config.Item;
+import com.hypixel.hytale.server.core.asset.type.item.config.ItemResourceType;
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.inventory.MaterialQuantity;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class CraftBenchRecipes {
+
+    public static final String BENCH_ID = "TutorialCraftBench";
+
+    // Prefijo de los ingredientes que son tipos de recurso
+    private static final String RESOURCE_PREFIX = "#";
+
+    private static final RecipeIndex INDEX = new RecipeIndex();
+
+    private CraftBenchRecipes() {
+    }
+
+    public static RecipeIndex index() {
+        return INDEX;
+    }
+
+    // ============================================================
+    // REGISTER: Se llama desde TutorialBlockPlugin.setup()
+    // ============================================================
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static void register(EventRegistry events) {
+        events.register(LoadedAssetsEvent.class, CraftingRecipe.class,
+            event -> onLoaded((LoadedAssetsEvent<String, CraftingRecipe, ?>) event));
+        events.register(RemovedAssetsEvent.class, CraftingRecipe.class,
+            event -> onRemoved((RemovedAssetsEvent<String, CraftingRecipe, ?>) event));
+    }
+
+    // Reconstruye el indice con todas las recetas cargadas; devuelve cuantas son de la mesa
+    public static int rebuild() {
+        INDEX.clear();
+        for (CraftingRecipe recipe : CraftingRecipe.getAssetMap().getAssetMap().values()) {
+            update(recipe);
+        }
+        return INDEX.size();
+    }
+
+    private static void onLoaded(LoadedAssetsEvent<String, CraftingRecipe, ?> event) {
+        for (CraftingRecipe recipe : event.getLoadedAssets().values()) {
+            update(recipe);
+        }
+    }
+
+    private static void onRemoved(RemovedAssetsEvent<String, CraftingRecipe, ?> event) {
+        for (String id : event.getRemovedAssets()) {
+            INDEX.remove(id);
+        }
+    }
+
+    // Una receta recargada puede haber dejado de usar la mesa: entonces se quita
+    private static void update(CraftingRecipe recipe) {
+        RecipeIndex.Recipe indexed = usesBench(recipe) ? toIndexed(recipe) : null;
+        if (indexed == null) {
+            INDEX.remove(recipe.getId());
+        } else {
+            INDEX.put(indexed);
+        }
+    }
+
+    private static boolean usesBench(CraftingRecipe recipe) {
+        BenchRequirement[] requirements = recipe.getBenchRequirement();
+        if (requirements == null) {
+            return false;
+        }
+        for (BenchRequirement requirement : requirements) {
+            if (BENCH_ID.equals(requirement.id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static RecipeIndex.Recipe toIndexed(CraftingRecipe recipe) {
+        MaterialQuantity[] inputs = recipe.getInput();
+        if (inputs == null || inputs.length == 0) {
+            return null;
+        }
+
+        // Mismo ingrediente repetido en varios huecos -> se suman las cantidades
+        Map<String, Integer> merged = new LinkedHashMap<>();
+        for (MaterialQuantity input : inputs) {
+            String key = input.getItemId() != null
+                ? input.getItemId()
+                : RESOURCE_PREFIX + input.getResourceTypeId();
+            merged.merge(key, input.getQuantity(), Integer::sum);
+        }
+
+        String[] ingredients = new String[merged.size()];
+        int[] quantities = new int[merged.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : merged.entrySet()) {
+            ingredients[i] = entry.getKey();
+            quantities[i] = entry.getValue();
+            i++;
+        }
+        return new RecipeIndex.Recipe(recipe.getId(), ingredients, quantities);
+    }
+
+    // ============================================================
+    // COUNT INVENTORY: ingrediente -> cantidad para RecipeIndex.craftable()
+    // ============================================================
+    public static Map<String, Integer> countInventory(ItemContainer container) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (short slot = 0; slot < container.getCapacity(); slot++) {
+            ItemStack stack = container.getItemStack(slot);
+            if (stack == null) {
+                continue;
+            }
+            counts.merge(stack.getItemId(), stack.getQuantity(), Integer::sum);
+
+            Item item = stack.getItem();
+            ItemResourceType[] resources = item != null ? item.getResourceTypes() : null;
+            if (resources != null) {
+                for (ItemResourceType resource : resources) {
+                    counts.merge(RESOURCE_PREFIX + resource.id, stack.getQuantity(), Integer::sum);
+                }
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * ============================================================
+ * TUTORIAL: RecipeIndex - Indice ingrediente -> recetas
+ * ============================================================
+ *
+ * Para saber que recetas puede craftear un jugador "ya", lo ingenuo
+ * es recorrer TODAS las recetas y comprobar el inventario en cada una.
+ * Con packs de recetas grandes eso se nota cada vez que se abre la mesa.
+ *
+ * El indice guarda, por cada ingrediente, las recetas que lo usan.
+ * craftable() solo mira las recetas de los items que el jugador TIENE,
+ * y cada receta se comprueba una sola vez: cuando se llega a ella por
+ * su primer ingrediente (si no lo tiene, no puede craftearla).
+ *
+ * Se actualiza receta a receta (put/remove), asi que recargar assets
+ * no obliga a reconstruirlo entero. No depende de clases de Hytale:
+ * CraftBenchRecipes traduce los CraftingRecipe a Recipe.
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.crafting;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public final class RecipeIndex {
+
+    // Una receta ya traducida: ingredientes distintos y cantidad de cada uno
+    public record Recipe(String id, String[] ingredients, int[] quantities) {
+
+        public boolean satisfiedBy(Map<String, Integer> inventory) {
+            for (int i = 0; i < ingredients.length; i++) {
+                Integer have = inventory.get(ingredients[i]);
+                if (have == null || have < quantities[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    // Resultado de craftable(): los primeros "limit" ids y cuantas hay en total
+    public record Craftable(List<String> ids, int total) {
+    }
+
+    private final Map<String, Recipe> recipes = new HashMap<>();
+
+    // Las listas guardan la Recipe directamente: craftable() no busca por id
+    private final Map<String, List<Recipe>> byIngredient = new HashMap<>();
+
+    // Añade o reemplaza una receta (mismo id = version recargada)
+    public synchronized void put(Recipe recipe) {
+        remove(recipe.id());
+        recipes.put(recipe.id(), recipe);
+        for (String ingredient : recipe.ingredients()) {
+            byIngredient.computeIfAbsent(ingredient, k -> new ArrayList<>()).add(recipe);
+        }
+    }
+
+    public synchronized boolean remove(String recipeId) {
+        Recipe old = recipes.remove(recipeId);
+        if (old == null) {
+            return false;
+        }
+        for (String ingredient : old.ingredients()) {
+            List<Recipe> users = byIngredient.get(ingredient);
+            if (users != null && users.remove(old) && users.isEmpty()) {
+                byIngredient.remove(ingredient);
+            }
+        }
+        return true;
+    }
+
+    public synchronized void clear() {
+        recipes.clear();
+        byIngredient.clear();
+    }
+
+    public synchronized int size() {
+        return recipes.size();
+    }
+
+    public synchronized Set<String> recipesUsing(String ingredient) {
+        Set<String> ids = new LinkedHashSet<>();
+        List<Recipe> users = byIngredient.get(ingredient);
+        if (users != null) {
+            for (Recipe recipe : users) {
+                ids.add(recipe.id());
+            }
+        }
+        return ids;
+    }
+
+    // ============================================================
+    // CRAFTABLE: ids de las recetas que se pueden craftear con
+    // "inventory" (ingrediente -> cantidad), ordenados, como mucho
+    // "limit"; total = todas las que se pueden, aunque no quepan
+    // ============================================================
+    public synchronized Craftable craftable(Map<String, Integer> inventory, int limit) {
+        List<String> result = new ArrayList<>();
+        for (String item : inventory.keySet()) {
+            List<Recipe> users = byIngredient.get(item);
+            if (users == null) {
+                continue;
+            }
+            for (int i = 0, n = users.size(); i < n; i++) {
+                Recipe recipe = users.get(i);
+                // Solo desde el primer ingrediente: cada receta se comprueba una vez
+                if (recipe.ingredients()[0].equals(item) && recipe.satisfiedBy(inventory)) {
+                    result.add(recipe.id());
+                }
+            }
+        }
+        Collections.sort(result);
+        int total = result.size();
+        return new Craftable(total > limit ? new ArrayList<>(result.subList(0, limit)) : result, total);
+    }
+}
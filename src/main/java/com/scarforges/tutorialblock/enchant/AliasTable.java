@@ -0,0 +1,83 @@
+/*
+ * ============================================================
+ * TUTORIAL: AliasTable - Muestreo ponderado en O(1)
+ * ============================================================
+ *
+ * Metodo alias de Vose: a partir de N pesos se construyen (una vez)
+ * dos arrays, prob[] y alias[]. Para elegir un elemento:
+ *   1. se tira un indice uniforme i
+ *   2. con probabilidad prob[i] sale i, si no sale alias[i]
+ *
+ * Construir es O(N); cada muestra es O(1), sin importar cuantos
+ * elementos haya. La alternativa ingenua (sumar pesos y recorrer
+ * hasta pasar un numero aleatorio) es O(N) por muestra.
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.enchant;
+
+import java.util.SplittableRandom;
+
+public final class AliasTable {
+
+    private final double[] prob;
+    private final int[] alias;
+
+    public AliasTable(double[] weights) {
+        int n = weights.length;
+        if (n == 0) {
+            throw new IllegalArgumentException("AliasTable necesita al menos un peso");
+        }
+        prob = new double[n];
+        alias = new int[n];
+
+        double total = 0;
+        for (double w : weights) {
+            total += w;
+        }
+
+        // Pesos escalados para que la media sea 1
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            int s = small[--smallCount];
+            int l = large[--largeCount];
+            prob[s] = scaled[s];
+            alias[s] = l;
+            scaled[l] = (scaled[l] + scaled[s]) - 1.0;
+            if (scaled[l] < 1.0) {
+                small[smallCount++] = l;
+            } else {
+                large[largeCount++] = l;
+            }
+        }
+        // Lo que queda (por redondeo) tiene probabilidad 1
+        while (largeCount > 0) {
+            prob[large[--largeCount]] = 1.0;
+        }
+        while (smallCount > 0) {
+            prob[small[--smallCount]] = 1.0;
+        }
+    }
+
+    public int size() {
+        return prob.length;
+    }
+
+    public int sample(SplittableRandom random) {
+        int i = random.nextInt(prob.length);
+        return random.nextDouble() < prob[i] ? i : alias[i];
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * ============================================================
+ * TUTORIAL: EnchantOffer - Una oferta de la mesa
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.enchant;
+
+import com.scarforges.tutorialblock.message.Messages;
+
+public record EnchantOffer(Enchantment enchantment, int level, int cost) {
+
+    // Texto para la UI, ej: "Filo III (6 niveles)" (enchant.offer del catalogo)
+    public String label() {
+        return Messages.text(Messages.Key.ENCHANT_OFFER, enchantment.displayName(), roman(level), cost);
+    }
+
+    private static String roman(int n) {
+        switch (n) {
+            case 1: return "I";
+            case 2: return "II";
+            case 3: return "III";
+            case 4: return "IV";
+            case 5: return "V";
+            default: return String.valueOf(n);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * ============================================================
+ * TUTORIAL: EnchantingEngine - Ofertas de la Enchant Table
+ * ============================================================
+ *
+ * En setup() se precalcula una tabla por (categoria, tier):
+ *   - todas las combinaciones (encantamiento, nivel) validas
+ *   - su peso: peso base del encantamiento, con niveles altos
+ *     mas raros y mas probables cuanto mayor es el tier
+ *   - una AliasTable para muestrear en O(1)
+ *
+ * offers() solo elige N entradas de la tabla con un Random
+ * determinista (semilla del jugador + item), asi que el mismo
+ * jugador ve siempre las mismas ofertas para el mismo item: la
+ * semilla es fija y las ofertas solo se muestran (no hay accion
+ * para aplicarlas). Cambian al cambiar el item en la mano. Es
+ * barato: se puede llamar en cada refresco.
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.enchant;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public final class EnchantingEngine {
+
+    // Intentos maximos para sacar N encantamientos distintos
+    private static final int MAX_DRAWS = 32;
+
+    private static volatile EnchantingEngine instance;
+
+    private final OfferTable[][] tables;
+
+    // Tabla precalculada de una (categoria, tier)
+    static final class OfferTable {
+        final EnchantOffer[] entries;
+        final AliasTable alias;
+
+        OfferTable(EnchantOffer[] entries, double[] weights) {
+            this.entries = entries;
+            this.alias = entries.length == 0 ? null : new AliasTable(weights);
+        }
+    }
+
+    private EnchantingEngine(OfferTable[][] tables) {
+        this.tables = tables;
+    }
+
+    // ============================================================
+    // PREPARE: Se llama UNA vez desde TutorialBlockPlugin.setup()
+    // ============================================================
+    public static EnchantingEngine prepare() {
+        ItemCategory[] categories = ItemCategory.values();
+        OfferTable[][] tables = new OfferTable[categories.length][ItemCategory.TIERS];
+        for (ItemCategory category : categories) {
+            for (int tier = 0; tier < ItemCategory.TIERS; tier++) {
+                tables[category.ordinal()][tier] = buildTable(category, tier);
+            }
+        }
+        EnchantingEngine engine = new EnchantingEngine(tables);
+        instance = engine;
+        return engine;
+    }
+
+    // El motor preparado en setup() (o uno nuevo si aun no existe)
+    public static EnchantingEngine get() {
+        EnchantingEngine engine = instance;
+        return engine != null ? engine : prepare();
+    }
+
+    public static long seedFor(long playerSeed, String itemId) {
+        long h = playerSeed ^ (itemId == null ? 0 : itemId.hashCode()) * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 31;
+        return h * 0xBF58476D1CE4E5B9L;
+    }
+
+    // ============================================================
+    // OFFERS: Hasta "count" ofertas distintas para el item
+    // ============================================================
+    public List<EnchantOffer> offers(String itemId, long playerSeed, int count) {
+        OfferTable table = table(itemId);
+        List<EnchantOffer> result = new ArrayList<>(count);
+        if (table.alias == null) {
+            return result;
+        }
+
+        SplittableRandom random = new SplittableRandom(seedFor(playerSeed, itemId));
+        long used = 0L;
+        for (int draw = 0; draw < MAX_DRAWS && result.size() < count; draw++) {
+            EnchantOffer offer = table.entries[table.alias.sample(random)];
+            long bit = 1L << offer.enchantment().ordinal();
+            if ((used & bit) == 0) {
+                used |= bit;
+                result.add(offer);
+            }
+        }
+        return result;
+    }
+
+    private OfferTable table(String itemId) {
+        return tables[ItemCategory.of(itemId).ordinal()][ItemCategory.tierOf(itemId)];
+    }
+
+    private static OfferTable buildTable(ItemCategory category, int tier) {
+        List<EnchantOffer> entries = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+        for (Enchantment enchantment : Enchantment.values()) {
+            if (!enchantment.appliesTo(category)) {
+                continue;
+            }
+            // El tier limita el nivel maximo (tier 0 -> nivel 1 como mucho)
+            int maxLevel = Math.min(enchantment.maxLevel(), tier + 1);
+            for (int level = 1; level <= maxLevel; level++) {
+                entries.add(new EnchantOffer(enchantment, level, level * 2 + tier));
+                // Cada nivel extra es la mitad de probable
+                weights.add(enchantment.weight() / (double) (1 << (level - 1)));
+            }
+        }
+        double[] w = new double[weights.size()];
+        for (int i = 0; i < w.length; i++) {
+            w[i] = weights.get(i);
+        }
+        return new OfferTable(entries.toArray(new EnchantOffer[0]), w);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * ============================================================
+ * TUTORIAL: Enchantment - Catalogo de encantamientos
+ * ============================================================
+ *
+ * Cada encantamiento dice a que categorias se aplica, su nivel
+ * maximo y su peso base (cuanto mas peso, mas facil que salga).
+ * Para añadir uno nuevo basta con añadir una linea aqui (y su
+ * nombre "enchantment.*" en messages/): las tablas de ofertas
+ * se recalculan en setup().
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.enchant;
+
+import com.scarforges.tutorialblock.message.Messages;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+public enum Enchantment {
+
+    SHARPNESS(Messages.Key.ENCHANTMENT_SHARPNESS, 5, 10, EnumSet.of(ItemCategory.WEAPON)),
+    KNOCKBACK(Messages.Key.ENCHANTMENT_KNOCKBACK, 2, 5, EnumSet.of(ItemCategory.WEAPON)),
+    LIFESTEAL(Messages.Key.ENCHANTMENT_LIFESTEAL, 3, 2, EnumSet.of(ItemCategory.WEAPON)),
+    EFFICIENCY(Messages.Key.ENCHANTMENT_EFFICIENCY, 5, 10, EnumSet.of(ItemCategory.TOOL)),
+    FORTUNE(Messages.Key.ENCHANTMENT_FORTUNE, 3, 3, EnumSet.of(ItemCategory.TOOL)),
+    SILK_TOUCH(Messages.Key.ENCHANTMENT_SILK_TOUCH, 1, 1, EnumSet.of(ItemCategory.TOOL)),
+    PROTECTION(Messages.Key.ENCHANTMENT_PROTECTION, 4, 10, EnumSet.of(ItemCategory.ARMOR)),
+    THORNS(Messages.Key.ENCHANTMENT_THORNS, 3, 2, EnumSet.of(ItemCategory.ARMOR)),
+    UNBREAKING(Messages.Key.ENCHANTMENT_UNBREAKING, 3, 5, EnumSet.of(ItemCategory.WEAPON, ItemCategory.TOOL, ItemCategory.ARMOR)),
+    MENDING(Messages.Key.ENCHANTMENT_MENDING, 1, 1, EnumSet.of(ItemCategory.WEAPON, ItemCategory.TOOL, ItemCategory.ARMOR));
+
+    private final Messages.Key name;
+    private final int maxLevel;
+    private final int weight;
+    private final Set<ItemCategory> categories;
+
+    Enchantment(Messages.Key name, int maxLevel, int weight, Set<ItemCategory> categories) {
+        this.name = name;
+        this.maxLevel = maxLevel;
+        this.weight = weight;
+        this.categories = categories;
+    }
+
+    // En el idioma del catalogo (enchantment.* en messages/)
+    public String displayName() {
+        return Messages.text(name);
+    }
+
+    public int maxLevel() {
+        return maxLevel;
+    }
+
+    public int weight() {
+        return weight;
+    }
+
+    public boolean appliesTo(ItemCategory category) {
+        return categories.contains(category);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * ============================================================
+ * TUTORIAL: ItemCategory - Tipo de item que se puede encantar
+ * ============================================================
+ *
+ * Se deduce del id del item ("Weapon_Sword_Iron", "Tool_Pickaxe_Copper",
+ * "Armor_Iron_Chest"...). El tier sale del material del id.
+ * Ambos se usan como indice de las tablas de ofertas precalculadas.
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.enchant;
+
+import java.util.Locale;
+
+public enum ItemCategory {
+
+    WEAPON,
+    TOOL,
+    ARMOR,
+    OTHER;
+
+    // Materiales de menor a mayor tier; el indice es el tier
+    private static final String[][] TIER_MATERIALS = {
+        {"crude", "wood", "stone"},
+        {"copper", "bronze"},
+        {"iron"},
+        {"thorium", "cobalt"},
+        {"adamantite", "mithril"}
+    };
+
+    public static final int TIERS = TIER_MATERIALS.length;
+
+    public static ItemCategory of(String itemId) {
+        if (itemId == null) {
+            return OTHER;
+        }
+        if (itemId.startsWith("Weapon_")) {
+            return WEAPON;
+        }
+        if (itemId.startsWith("Tool_")) {
+            return TOOL;
+        }
+        if (itemId.startsWith("Armor_")) {
+            return ARMOR;
+        }
+        return OTHER;
+    }
+
+    public static int tierOf(String itemId) {
+        if (itemId == null) {
+            return 0;
+        }
+        String id = itemId.toLowerCase(Locale.ROOT);
+        for (int tier = TIERS - 1; tier > 0; tier--) {
+            for (String material : TIER_MATERIALS[tier]) {
+                if (id.contains(material)) {
+                    return tier;
+                }
+            }
+        }
+        return 0;
+    }
+}
@@ -8,7 +8,8 @@
  *
  * Lo que hacemos aqui:
  *   1. Obtener Player y PlayerRef del contexto de interaccion
- *   2. Crear un EnchantTablePanel (nuestra UI custom)
+ *   2. Crear un EnchantTablePanel (nuestra UI custom) con el
+ *      item que tiene en la mano (para calcular sus ofertas)
  *   3. Abrirlo con player.getPageManager().openCustomPage()
  *
  * CONCEPTOS CLAVE:
@@ -18,11 +19,16 @@
  *     clase al leer el JSON de interaccion.
  *   - El JSON dice { "Type": "Tutorial_EnchantTableInteraction" }
  *     y el plugin lo conecta con esta clase en setup().
+ *   - "ThrottleMs" (opcional, por defecto 500): aperturas repetidas
+ *     del mismo jugador en el mismo bloque dentro de esa ventana se
+ *     descartan ANTES de buscar componentes o crear el panel.
  *
  * ============================================================
  */
 package com.scarforges.tutorialblock.interaction;
 
+import com.hypixel.hytale.codec.Codec;
+import com.hypixel.hytale.codec.KeyedCodec;
 import com.hypixel.hytale.codec.builder.BuilderCodec;
 import com.hypixel.hytale.component.CommandBuffer;
 import com.hypixel.hytale.component.Ref;
@@ -39,24 +45,45 @@ import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 
+import com.scarforges.tutorialblock.TutorialBlockPlugin;
+import com.scarforges.tutorialblock.metrics.PluginMetrics;
+import com.scarforges.tutorialblock.session.SessionStore;
 import com.scarforges.tutorialblock.ui.EnchantTablePanel;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 public class EnchantTableInteraction extends SimpleBlockInteraction {
 
     private static final Logger LOGGER = Logger.getLogger("Tutorial-EnchantTable");
 
+    // Compartido por todas las instancias: por nombre de mundo, (jugador, bloque) -> ultima apertura.
+    // Por mundo porque el indice de entidad se repite entre mundos.
+    private static final Map<String, InteractionThrottle> THROTTLES = new ConcurrentHashMap<>();
+
+    // Ventana anti-spam en milisegundos (configurable desde el JSON)
+    private int throttleMs = 500;
+
     // CODEC: Permite que Hytale deserialice esta interaccion desde JSON.
-    // No tiene parametros extra, asi que solo extendemos el CODEC base.
-    public static final BuilderCodec<EnchantTableInteraction> CODEC =
+    // Extiende el CODEC base y añade el parametro opcional "ThrottleMs".
+    @SuppressWarnings("unchecked")
+    public static final BuilderCodec<EnchantTableInteraction> CODEC = ((BuilderCodec.Builder<EnchantTableInteraction>)
         BuilderCodec.builder(
-            EnchantTableInteraction.class, 
-            EnchantTableInteraction::new, 
+            EnchantTableInteraction.class,
+            EnchantTableInteraction::new,
             SimpleBlockInteraction.CODEC
-        ).build();
+        )
+            .append(
+                new KeyedCodec<>("ThrottleMs", Codec.INTEGER),
+                (obj, val) -> obj.throttleMs = val,
+                obj -> obj.throttleMs
+            )
+            .add())
+        .build();
 
     @Override
     protected void interactWithBlock(@Nonnull World world,
@@ -69,6 +96,19 @@ public class EnchantTableInteraction extends SimpleBlockInteraction {
         try {
             // 1. Obtener la entidad del jugador
             Ref<EntityStore> entityRef = interactionContext.getEntity();
+
+            // Anti-spam: descartar repeticiones antes de cualquier otra cosa.
+            // La entidad se identifica por mundo + su indice en el store,
+            // que ya tenemos sin buscar componentes.
+            InteractionThrottle throttle = THROTTLES.computeIfAbsent(world.getName(), w -> new InteractionThrottle());
+            if (!throttle.tryAcquire(entityRef.getIndex(),
+                    targetBlock.getX(), targetBlock.getY(), targetBlock.getZ(),
+                    System.nanoTime(), TimeUnit.MILLISECONDS.toNanos(throttleMs))) {
+                PluginMetrics.Counter.ENCHANT_THROTTLED.increment();
+                return;
+            }
+            long start = System.nanoTime();
+
             Store<EntityStore> store = entityRef.getStore();
 
             // 2. Obtener componente Player (necesario para abrir UI)
@@ -85,12 +125,22 @@ public class EnchantTableInteraction extends SimpleBlockInteraction {
                 return;
             }
 
-            LOGGER.info("Abriendo UI para " + playerRef.getUsername());
+            if (TutorialBlockPlugin.verbose()) {
+                LOGGER.info("Abriendo UI para " + playerRef.getUsername());
+            }
 
             // 4. Crear la pagina de UI y abrirla
-            EnchantTablePanel panel = new EnchantTablePanel(playerRef);
+            String itemId = itemInHand != null ? itemInHand.getItemId() : null;
+            EnchantTablePanel panel = new EnchantTablePanel(playerRef, itemId, targetBlock);
             player.getPageManager().openCustomPage(entityRef, store, (CustomUIPage) panel);
 
+            PluginMetrics.Counter.ENCHANT_OPENS.increment();
+            SessionStore sessions = TutorialBlockPlugin.getInstance().getSessions();
+            if (sessions != null) {
+                sessions.increment(playerRef.getUuid(), SessionStore.Counter.ENCHANT_OPENS);
+            }
+            PluginMetrics.Timer.ENCHANT_OPEN.record(System.nanoTime() - start);
+
         } catch (Exception e) {
             LOGGER.warning("Error abriendo Enchant Table: " + e.getMessage());
         }
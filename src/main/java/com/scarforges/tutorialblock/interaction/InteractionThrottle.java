@@ -0,0 +1,137 @@
+/*
+ * ============================================================
+ * TUTORIAL: InteractionThrottle - Anti-spam de interacciones
+ * ============================================================
+ *
+ * Si el jugador mantiene pulsada la F (o usa una macro), Hytale
+ * llama a interactWithBlock() una y otra vez. Esta clase recuerda
+ * la ultima apertura de cada (jugador, bloque) y rechaza las que
+ * llegan antes de que pase la ventana configurada.
+ *
+ * ESTRUCTURA: tabla hash de direccionamiento abierto sobre arrays
+ * primitivos (sin objetos por entrada, sin boxing):
+ *   entities[i]  -> indice de la entidad del jugador (-1 = libre)
+ *   positions[i] -> posicion del bloque empaquetada en un long
+ *   expiresAt[i] -> nanoTime a partir del cual se vuelve a permitir
+ *
+ * Una entrada caducada solo se reutiliza si vuelve el MISMO
+ * (jugador, bloque); las demas siguen ocupando su hueco hasta que
+ * la tabla se llena a la mitad y rehash() la reconstruye sin ellas.
+ *
+ * UNA TABLA POR MUNDO: el indice de entidad solo es unico dentro
+ * del store de un mundo (EnchantTableInteraction guarda una por
+ * nombre de mundo). Los metodos son synchronized por si acaso, pero
+ * cada tabla solo la usa el hilo de su mundo.
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.interaction;
+
+import java.util.Arrays;
+
+public final class InteractionThrottle {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private int[] entities;
+    private long[] positions;
+    private long[] expiresAt;
+    private int mask;
+    private int used = 0;
+
+    public InteractionThrottle() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    // ============================================================
+    // TRY ACQUIRE: true si la interaccion puede seguir,
+    // false si es una repeticion dentro de la ventana.
+    // ============================================================
+    public synchronized boolean tryAcquire(int entity, int x, int y, int z, long nowNanos, long windowNanos) {
+        long position = packPosition(x, y, z);
+        int i = indexOf(entity, position);
+
+        for (; entities[i] != -1; i = (i + 1) & mask) {
+            if (entities[i] == entity && positions[i] == position) {
+                if (nowNanos - expiresAt[i] < 0) {
+                    return false;
+                }
+                expiresAt[i] = nowNanos + windowNanos;
+                return true;
+            }
+        }
+
+        entities[i] = entity;
+        positions[i] = position;
+        expiresAt[i] = nowNanos + windowNanos;
+        if (++used * 2 > entities.length) {
+            rehash(nowNanos);
+        }
+        return true;
+    }
+
+    public synchronized int size() {
+        return used;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(entities, -1);
+        used = 0;
+    }
+
+    // Empaqueta x/z (26 bits) e y (12 bits) en un long, como las coords de bloque
+    static long packPosition(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    private int indexOf(int entity, long position) {
+        long h = position * 0x9E3779B97F4A7C15L ^ entity;
+        h ^= h >>> 29;
+        h *= 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 32;
+        return (int) h & mask;
+    }
+
+    // Reconstruye la tabla quitando lo caducado; solo crece si sigue llena
+    private void rehash(long nowNanos) {
+        int[] oldEntities = entities;
+        long[] oldPositions = positions;
+        long[] oldExpires = expiresAt;
+
+        int live = 0;
+        for (int i = 0; i < oldEntities.length; i++) {
+            if (oldEntities[i] != -1 && nowNanos - oldExpires[i] < 0) {
+                live++;
+            }
+        }
+
+        int capacity = oldEntities.length;
+        while (live * 4 > capacity) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+
+        for (int i = 0; i < oldEntities.length; i++) {
+            if (oldEntities[i] == -1 || nowNanos - oldExpires[i] >= 0) {
+                continue;
+            }
+            int j = indexOf(oldEntities[i], oldPositions[i]);
+            while (entities[j] != -1) {
+                j = (j + 1) & mask;
+            }
+            entities[j] = oldEntities[i];
+            positions[j] = oldPositions[i];
+            expiresAt[j] = oldExpires[i];
+            used++;
+        }
+    }
+
+    private void allocate(int capacity) {
+        entities = new int[capacity];
+        positions = new long[capacity];
+        expiresAt = new long[capacity];
+        Arrays.fill(entities, -1);
+        mask = capacity - 1;
+        used = 0;
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * ============================================================
+ * TUTORIAL: MessageTemplate - Un mensaje del catalogo, ya compilado
+ * ============================================================
+ *
+ * Formato de cada linea del .properties:
+ *
+ *   trash.summary=<orange>[Papelera] <white>Habia <cyan bold>{0}<white> stack(s)
+ *
+ *   <color ...>  -> empieza un tramo con ese estilo (color con nombre
+ *                  o #rrggbb, y "bold" opcional)
+ *   {n}          -> hueco para el parametro n, con el estilo del tramo
+ *
+ * Se parsea UNA vez al cargar. Los tramos fijos se convierten en
+ * Message una sola vez y se reutilizan en cada envio; al enviar solo
+ * se crean los Message de los huecos. Si no hay huecos, se reutiliza
+ * el mensaje entero.
+ *
+ * Los Message compartidos NO se deben modificar (ni .color() ni
+ * .bold()) despues de compilar.
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.message;
+
+import com.hypixel.hytale.server.core.Message;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public final class MessageTemplate {
+
+    private static final int NO_PARAM = -1;
+
+    // Un tramo: texto fijo (param == NO_PARAM) o hueco {param}
+    private record Part(String text, int param, Color color, boolean bold, Message fixed) {
+    }
+
+    private final String key;
+    private final Part[] parts;
+    private final Message whole;
+
+    private MessageTemplate(String key, List<Part> parts) {
+        this.key = key;
+        this.parts = parts.toArray(new Part[0]);
+
+        boolean hasParams = false;
+        for (Part part : this.parts) {
+            hasParams |= part.param != NO_PARAM;
+        }
+        this.whole = hasParams ? null : join(this.parts, null);
+    }
+
+    public String key() {
+        return key;
+    }
+
+    // ============================================================
+    // COMPILE: "<orange>Hola {0}" -> [Part(orange, "Hola "), Part(orange, {0})]
+    // ============================================================
+    public static MessageTemplate compile(String key, String source) {
+        List<Part> parts = new ArrayList<>();
+        Color color = null;
+        boolean bold = false;
+        StringBuilder text = new StringBuilder();
+
+        int i = 0;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            int close;
+            if (c == '<' && (close = source.indexOf('>', i)) > i) {
+                addText(parts, text, color, bold);
+                color = null;
+                bold = false;
+                for (String token : source.substring(i + 1, close).trim().split("\\s+")) {
+                    if (token.equalsIgnoreCase("bold")) {
+                        bold = true;
+                    } else if (!token.isEmpty()) {
+                        color = parseColor(key, token);
+                    }
+                }
+                i = close + 1;
+            } else if (c == '{' && (close = source.indexOf('}', i)) > i + 1 && isDigits(source, i + 1, close)) {
+                addText(parts, text, color, bold);
+                parts.add(new Part(null, Integer.parseInt(source.substring(i + 1, close)), color, bold, null));
+                i = close + 1;
+            } else {
+                text.append(c);
+                i++;
+            }
+        }
+        addText(parts, text, color, bold);
+        return new MessageTemplate(key, parts);
+    }
+
+    // Mensaje de chat con los parametros rellenos
+    public Message message(Object... args) {
+        return whole != null ? whole : join(parts, args);
+    }
+
+    // Solo el texto, sin estilos (Labels de la UI, logs)
+    public String text(Object... args) {
+        StringBuilder out = new StringBuilder();
+        for (Part part : parts) {
+            out.append(part.param == NO_PARAM ? part.text : arg(args, part.param));
+        }
+        return out.toString();
+    }
+
+    private static Message join(Part[] parts, Object[] args) {
+        if (parts.length == 1 && parts[0].fixed != null) {
+            return parts[0].fixed;
+        }
+        Message[] messages = new Message[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            Part part = parts[i];
+            messages[i] = part.fixed != null
+                ? part.fixed
+                : style(Message.raw(arg(args, part.param)), part.color, part.bold);
+        }
+        return Message.join(messages);
+    }
+
+    private static void addText(List<Part> parts, StringBuilder text, Color color, boolean bold) {
+        if (text.length() == 0) {
+            return;
+        }
+        String value = text.toString();
+        parts.add(new Part(value, NO_PARAM, color, bold, style(Message.raw(value), color, bold)));
+        text.setLength(0);
+    }
+
+    private static Message style(Message message, Color color, boolean bold) {
+        if (color != null) {
+            message = message.color(color);
+        }
+        if (bold) {
+            message = message.bold(true);
+        }
+        return message;
+    }
+
+    private static String arg(Object[] args, int index) {
+        return args != null && index < args.length ? String.valueOf(args[index]) : "{" + index + "}";
+    }
+
+    private static boolean isDigits(String s, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!Character.isDigit(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Color parseColor(String key, String token) {
+        if (token.startsWith("#")) {
+            try {
+                return new Color(Integer.parseInt(token.substring(1), 16));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Color invalido en '" + key + "': " + token);
+            }
+        }
+        switch (token.toLowerCase(Locale.ROOT)) {
+            case "orange": return Color.ORANGE;
+            case "white": return Color.WHITE;
+            case "cyan": return Color.CYAN;
+            case "red": return Color.RED;
+            case "green": return Color.GREEN;
+            case "yellow": return Color.YELLOW;
+            case "gray": return Color.GRAY;
+            default:
+                throw new IllegalArgumentException("Color desconocido en '" + key + "': " + token);
+        }
+    }
+}
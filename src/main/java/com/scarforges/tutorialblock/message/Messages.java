@@ -0,0 +1,170 @@
+/*
+ * ============================================================
+ * TUTORIAL: Messages - Catalogo de mensajes del plugin
+ * ============================================================
+ *
+ * Todos los textos que ven los jugadores salen de
+ * "messages/<idioma>.properties" (dentro del jar). Se cargan y
+ * compilan UNA vez en setup() con el "Language" de la config:
+ *
+ *   playerRef.sendMessage(Messages.message(Messages.Key.TRASH_OPEN));
+ *   String s = Messages.text(Messages.Key.ENCHANT_STATUS, clicks);
+ *
+ * Si el idioma no existe, o le falta alguna clave, se usa la de
+ * "es" (el idioma original del tutorial). Para añadir un idioma
+ * basta con un .properties nuevo con las mismas claves.
+ *
+ * Formato de cada linea: ver MessageTemplate.
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.message;
+
+import com.hypixel.hytale.server.core.Message;
+
+import com.scarforges.tutorialblock.config.TutorialConfig;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+public final class Messages {
+
+    // ============================================================
+    // KEY: Una por mensaje; el String es la clave del .properties
+    // ============================================================
+    public enum Key {
+        TRASH_OPEN("trash.open"),
+        TRASH_SUMMARY("trash.summary"),
+        TRASH_SUMMARY_UNKNOWN("trash.summary_unknown"),
+        ENCHANT_HELLO("enchant.hello"),
+        ENCHANT_STATUS("enchant.status"),
+        ENCHANT_NOT_ENCHANTABLE("enchant.not_enchantable"),
+        ENCHANT_OFFER("enchant.offer"),
+        TABLE_VIEWERS("table.viewers"),
+        TABLE_HELLOS("table.hellos"),
+
+        // Nombres de Enchantment
+        ENCHANTMENT_SHARPNESS("enchantment.sharpness"),
+        ENCHANTMENT_KNOCKBACK("enchantment.knockback"),
+        ENCHANTMENT_LIFESTEAL("enchantment.lifesteal"),
+        ENCHANTMENT_EFFICIENCY("enchantment.efficiency"),
+        ENCHANTMENT_FORTUNE("enchantment.fortune"),
+        ENCHANTMENT_SILK_TOUCH("enchantment.silk_touch"),
+        ENCHANTMENT_PROTECTION("enchantment.protection"),
+        ENCHANTMENT_THORNS("enchantment.thorns"),
+        ENCHANTMENT_UNBREAKING("enchantment.unbreaking"),
+        ENCHANTMENT_MENDING("enchantment.mending"),
+
+        // Comandos "/tutorial ..."
+        CMD_LINE("cmd.line"),
+        CMD_NOT_ONLINE("cmd.not_online"),
+        CMD_JOURNAL_UNAVAILABLE("cmd.journal_unavailable"),
+        CMD_JOURNAL_ERROR("cmd.journal_error"),
+        CMD_SESSIONS_UNAVAILABLE("cmd.sessions_unavailable"),
+        CMD_BUSY("cmd.busy"),
+        STATS_HEADER("stats.header"),
+        DUMP_SAVED("dump.saved"),
+        DUMP_ERROR("dump.error"),
+        QUIET_ON("quiet.on"),
+        QUIET_OFF("quiet.off"),
+        TRASHLOG_HEADER("trashlog.header"),
+        TRASHLOG_LINE("trashlog.line"),
+        TRASHLOG_LINE_RESTORED("trashlog.line_restored"),
+        RESTORE_NOTHING("restore.nothing"),
+        RESTORE_DISCONNECTED("restore.disconnected"),
+        RESTORE_DONE("restore.done"),
+        RESTORE_PENDING("restore.pending"),
+        CRAFTABLE_HEADER("craftable.header"),
+        BLOCKS_HEADER("blocks.header"),
+        BLOCKS_HEADER_RADIUS("blocks.header_radius"),
+        BLOCKS_TRASH("blocks.trash"),
+        BLOCKS_TABLES("blocks.tables"),
+        BLOCKS_TRASH_LINE("blocks.trash_line"),
+        BLOCKS_TABLE_LINE("blocks.table_line");
+
+        private final String property;
+
+        Key(String property) {
+            this.property = property;
+        }
+
+        public String property() {
+            return property;
+        }
+    }
+
+    private static final String RESOURCE_DIR = "messages/";
+
+    // Indexado por Key.ordinal(); se sustituye entero al recargar
+    private static volatile MessageTemplate[] templates;
+
+    private Messages() {
+    }
+
+    // ============================================================
+    // LOAD: Lee y compila el idioma pedido (con "es" de respaldo).
+    // Devuelve el idioma que se uso realmente.
+    // ============================================================
+    public static String load(String language) throws IOException {
+        Properties fallback = read(TutorialConfig.DEFAULT_LANGUAGE);
+        if (fallback == null) {
+            throw new IOException("No se encontro " + RESOURCE_DIR + TutorialConfig.DEFAULT_LANGUAGE + ".properties");
+        }
+        Properties wanted = language.equals(TutorialConfig.DEFAULT_LANGUAGE) ? fallback : read(language);
+        String used = wanted != null ? language : TutorialConfig.DEFAULT_LANGUAGE;
+        if (wanted == null) {
+            wanted = fallback;
+        }
+
+        Key[] keys = Key.values();
+        MessageTemplate[] compiled = new MessageTemplate[keys.length];
+        for (Key key : keys) {
+            String source = wanted.getProperty(key.property(), fallback.getProperty(key.property()));
+            if (source == null) {
+                throw new IOException("Falta el mensaje '" + key.property() + "'");
+            }
+            compiled[key.ordinal()] = MessageTemplate.compile(key.property(), source);
+        }
+        templates = compiled;
+        return used;
+    }
+
+    public static Message message(Key key, Object... args) {
+        return template(key).message(args);
+    }
+
+    public static String text(Key key, Object... args) {
+        return template(key).text(args);
+    }
+
+    // Por si algo envia un mensaje antes de setup(): se carga "es"
+    private static MessageTemplate template(Key key) {
+        MessageTemplate[] current = templates;
+        if (current == null) {
+            try {
+                load(TutorialConfig.DEFAULT_LANGUAGE);
+            } catch (IOException e) {
+                throw new IllegalStateException("No se pudo cargar el catalogo de mensajes", e);
+            }
+            current = templates;
+        }
+        return current[key.ordinal()];
+    }
+
+    private static Properties read(String language) throws IOException {
+        InputStream in = Messages.class.getClassLoader()
+            .getResourceAsStream(RESOURCE_DIR + language + ".properties");
+        if (in == null) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return properties;
+    }
+}
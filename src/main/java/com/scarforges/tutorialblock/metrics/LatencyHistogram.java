@@ -0,0 +1,70 @@
+/*
+ * ============================================================
+ * TUTORIAL: LatencyHistogram - Histograma de tiempos sin allocs
+ * ============================================================
+ *
+ * Guarda duraciones en nanosegundos en 64 cubos de potencias de 2
+ * (cubo i = [2^i, 2^(i+1)) ns, el 0 tambien recoge el valor 0). record() solo hace operaciones
+ * atomicas sobre arrays ya creados: no crea objetos, asi que se
+ * puede llamar en cada click, apertura o cierre.
+ *
+ * Los percentiles son aproximados (limite superior del cubo),
+ * suficiente para ver si algo pasa de microsegundos a milisegundos.
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class LatencyHistogram {
+
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets.incrementAndGet(nanos == 0 ? 0 : 63 - Long.numberOfLeadingZeros(nanos));
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long meanNanos() {
+        long n = count.sum();
+        return n == 0 ? 0 : totalNanos.sum() / n;
+    }
+
+    public long maxNanos() {
+        return maxNanos.get();
+    }
+
+    // Percentil aproximado (0.0 - 1.0) en nanosegundos
+    public long percentileNanos(double p) {
+        long n = count.sum();
+        if (n == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(p * n);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= target) {
+                return Math.min(1L << Math.min(i + 1, 62), maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * ============================================================
+ * TUTORIAL: PluginMetrics - Contadores y tiempos del plugin
+ * ============================================================
+ *
+ * Sustituye al "LOGGER.info por cada evento" como forma de ver
+ * que esta pasando en el servidor:
+ *
+ *   PluginMetrics.Counter.TRASH_CLOSES.increment();
+ *   PluginMetrics.Timer.TRASH_CLOSE.record(System.nanoTime() - start);
+ *
+ * Registrar NO crea objetos (LongAdder + LatencyHistogram).
+ * Los Gauge no registran nada: leen un valor actual al reportar.
+ * Los Strings solo se construyen al leerlas: con el comando
+ * "/tutorial stats" o al volcarlas a disco con "/tutorial dump".
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+public final class PluginMetrics {
+
+    // ============================================================
+    // COUNTER: Numero de veces que ocurre algo
+    // ============================================================
+    public enum Counter {
+        ENCHANT_OPENS("enchant.opens"),
+        ENCHANT_THROTTLED("enchant.throttled"),
+        ENCHANT_BROADCASTS("enchant.broadcasts"),
+        ENCHANT_BROADCAST_SENDS("enchant.broadcast_sends"),
+        PANEL_EVENTS("panel.events"),
+        PANEL_EVENTS_REJECTED("panel.events.rejected"),
+        TRASH_CLOSES("trash.closes"),
+        TRASH_STACKS_DESTROYED("trash.stacks_destroyed"),
+        TRASH_SINK_STACKS("trash.sink_stacks"),
+        TRASH_SLOT_SCANS("trash.slot_scans"),
+        JOURNAL_RECORDS("journal.records"),
+        JOURNAL_DROPPED("journal.dropped"),
+        SESSION_LOADS("session.loads"),
+        SESSION_EVICTIONS("session.evictions"),
+        TASKS_REJECTED("tasks.rejected"),
+        TASKS_FAILED("tasks.failed");
+
+        private final String key;
+        private final LongAdder adder = new LongAdder();
+
+        Counter(String key) {
+            this.key = key;
+        }
+
+        public String key() {
+            return key;
+        }
+
+        public void increment() {
+            adder.increment();
+        }
+
+        public void add(long amount) {
+            adder.add(amount);
+        }
+
+        public long get() {
+            return adder.sum();
+        }
+    }
+
+    // ============================================================
+    // TIMER: Cuanto tarda el trabajo de cada tipo de bloque. Por
+    // bloque: abrir / cerrar, cada actualizacion (enchant.update =
+    // un flush de la mesa a sus paneles, trash.update = un cambio
+    // del contenedor) y la pasada por tick (trash.sink). La Craft
+    // Table es nativa: no tiene codigo nuestro que medir.
+    // ============================================================
+    public enum Timer {
+        ENCHANT_OPEN("enchant.open"),
+        ENCHANT_UPDATE("enchant.update"),
+        PANEL_EVENT("panel.event"),
+        TRASH_CLOSE("trash.close"),
+        TRASH_UPDATE("trash.update"),
+        TRASH_SINK("trash.sink"),
+        JOURNAL_BATCH("journal.batch"),
+        CRAFT_QUERY("craft.query"),
+        BLOCKS_QUERY("blocks.query"),
+        SESSION_FLUSH("session.flush"),
+        TASK_WAIT("tasks.wait"),
+        TASK_RUN("tasks.run");
+
+        private final String key;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        Timer(String key) {
+            this.key = key;
+        }
+
+        public String key() {
+            return key;
+        }
+
+        public void record(long nanos) {
+            histogram.record(nanos);
+        }
+
+        public LatencyHistogram histogram() {
+            return histogram;
+        }
+    }
+
+    // ============================================================
+    // GAUGE: Un valor actual (ej: tareas en cola), se lee al reportar
+    // ============================================================
+    public enum Gauge {
+        TASKS_PENDING("tasks.pending");
+
+        private final String key;
+        private volatile LongSupplier source;
+
+        Gauge(String key) {
+            this.key = key;
+        }
+
+        public String key() {
+            return key;
+        }
+
+        public void bind(LongSupplier source) {
+            this.source = source;
+        }
+
+        public void unbind() {
+            this.source = null;
+        }
+
+        public long get() {
+            LongSupplier current = source;
+            return current != null ? current.getAsLong() : 0L;
+        }
+    }
+
+    private PluginMetrics() {
+    }
+
+    // Una linea por metrica, lista para el chat o para un archivo
+    public static List<String> report() {
+        List<String> lines = new ArrayList<>();
+        for (Counter counter : Counter.values()) {
+            lines.add(counter.key() + " = " + counter.get());
+        }
+        for (Gauge gauge : Gauge.values()) {
+            lines.add(gauge.key() + " = " + gauge.get());
+        }
+        for (Timer timer : Timer.values()) {
+            LatencyHistogram h = timer.histogram();
+            lines.add(timer.key()
+                + " n=" + h.count()
+                + " mean=" + micros(h.meanNanos())
+                + " p50=" + micros(h.percentileNanos(0.50))
+                + " p99=" + micros(h.percentileNanos(0.99))
+                + " max=" + micros(h.maxNanos()));
+        }
+        for (String startup : StartupProfiler.summaries()) {
+            lines.add("startup." + startup);
+        }
+        return lines;
+    }
+
+    public static void dump(Path file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("# TutorialCustomBlock metrics " + Instant.now());
+        lines.addAll(report());
+        Path parent = file.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+
+    private static String micros(long nanos) {
+        return (nanos / 1000) + "us";
+    }
+}
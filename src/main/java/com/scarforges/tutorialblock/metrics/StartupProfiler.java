@@ -0,0 +1,72 @@
+/*
+ * ============================================================
+ * TUTORIAL: StartupProfiler - Cuanto tarda cada fase del arranque
+ * ============================================================
+ *
+ * setup() y start() registran codecs, BlockStates, sistemas...
+ * Con cada bloque nuevo el arranque crece; esta clase dice donde:
+ *
+ *   StartupProfiler profile = new StartupProfiler("setup");
+ *   registrarAlgo();
+ *   profile.mark("algo");        // lo de desde el mark anterior
+ *   ...
+ *   LOGGER.info(profile.finish()); // "setup 12ms: algo 3ms, ..."
+ *
+ * El ultimo resumen de cada profiler sale tambien en "/tutorial
+ * stats" y "/tutorial dump" (PluginMetrics.report()).
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class StartupProfiler {
+
+    // Ultimo resumen por nombre ("setup", "start")
+    private static final Map<String, String> SUMMARIES = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final long began;
+    private long phaseStart;
+    private final List<String> phases = new ArrayList<>();
+    private final List<Long> nanos = new ArrayList<>();
+
+    public StartupProfiler(String name) {
+        this.name = name;
+        this.began = System.nanoTime();
+        this.phaseStart = began;
+    }
+
+    // Cierra la fase en curso con este nombre y empieza la siguiente
+    public void mark(String phase) {
+        long now = System.nanoTime();
+        phases.add(phase);
+        nanos.add(now - phaseStart);
+        phaseStart = now;
+    }
+
+    // Resumen de una linea (y lo guarda para PluginMetrics.report())
+    public String finish() {
+        StringBuilder out = new StringBuilder()
+            .append(name).append(' ').append(millis(System.nanoTime() - began)).append(':');
+        for (int i = 0; i < phases.size(); i++) {
+            out.append(i == 0 ? " " : ", ").append(phases.get(i)).append(' ').append(millis(nanos.get(i)));
+        }
+        String summary = out.toString();
+        SUMMARIES.put(name, summary);
+        return summary;
+    }
+
+    static List<String> summaries() {
+        return new ArrayList<>(SUMMARIES.values());
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1fms", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * ============================================================
+ * TUTORIAL: BlockIndex - Posiciones de bloques por celdas
+ * ============================================================
+ *
+ * Guarda "que hay en (x, y, z)" agrupado por columnas de 32x32
+ * bloques (el tamaño de un chunk). Una consulta por radio o por
+ * region solo visita las celdas que la tocan, no todo el mundo:
+ *
+ *   index.put(x, y, z, valor);
+ *   index.forEachInRadius(cx, cy, cz, 64, (x, y, z, v) -> ...);
+ *
+ * Cada celda guarda sus entradas en arrays (posicion empaquetada
+ * en un long + valor). Borrar intercambia con la ultima entrada.
+ *
+ * Si la region cubre mas celdas de las que existen (radio enorme),
+ * se recorren las celdas existentes en vez de la region.
+ *
+ * Todos los metodos son synchronized: la carga de chunks y los
+ * comandos pueden venir de hilos distintos al del mundo.
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.registry;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public final class BlockIndex<T> {
+
+    public static final int CELL_SHIFT = 5;
+
+    private static final int INITIAL_CELL_CAPACITY = 4;
+
+    @FunctionalInterface
+    public interface Visitor<T> {
+        void accept(int x, int y, int z, T value);
+    }
+
+    private static final class Cell {
+        long[] positions = new long[INITIAL_CELL_CAPACITY];
+        Object[] values = new Object[INITIAL_CELL_CAPACITY];
+        int size = 0;
+
+        int indexOf(long position) {
+            for (int i = 0; i < size; i++) {
+                if (positions[i] == position) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        void removeAt(int i) {
+            int last = --size;
+            positions[i] = positions[last];
+            values[i] = values[last];
+            values[last] = null;
+        }
+    }
+
+    private final Map<Long, Cell> cells = new HashMap<>();
+    private int size = 0;
+
+    // Devuelve el valor anterior en esa posicion (null si no habia)
+    @SuppressWarnings("unchecked")
+    public synchronized T put(int x, int y, int z, T value) {
+        long cellKey = cellKey(x >> CELL_SHIFT, z >> CELL_SHIFT);
+        Cell cell = cells.computeIfAbsent(cellKey, k -> new Cell());
+        long position = packPosition(x, y, z);
+
+        int i = cell.indexOf(position);
+        if (i >= 0) {
+            T previous = (T) cell.values[i];
+            cell.values[i] = value;
+            return previous;
+        }
+        if (cell.size == cell.positions.length) {
+            cell.positions = Arrays.copyOf(cell.positions, cell.size * 2);
+            cell.values = Arrays.copyOf(cell.values, cell.size * 2);
+        }
+        cell.positions[cell.size] = position;
+        cell.values[cell.size] = value;
+        cell.size++;
+        size++;
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public synchronized T get(int x, int y, int z) {
+        Cell cell = cells.get(cellKey(x >> CELL_SHIFT, z >> CELL_SHIFT));
+        if (cell == null) {
+            return null;
+        }
+        int i = cell.indexOf(packPosition(x, y, z));
+        return i >= 0 ? (T) cell.values[i] : null;
+    }
+
+    // Solo borra si el valor guardado es "expected" (un estado viejo
+    // que se destruye tarde no borra al nuevo de la misma posicion)
+    public synchronized boolean remove(int x, int y, int z, T expected) {
+        long cellKey = cellKey(x >> CELL_SHIFT, z >> CELL_SHIFT);
+        Cell cell = cells.get(cellKey);
+        if (cell == null) {
+            return false;
+        }
+        int i = cell.indexOf(packPosition(x, y, z));
+        if (i < 0 || cell.values[i] != expected) {
+            return false;
+        }
+        cell.removeAt(i);
+        size--;
+        if (cell.size == 0) {
+            cells.remove(cellKey);
+        }
+        return true;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized int cellCount() {
+        return cells.size();
+    }
+
+    public synchronized void clear() {
+        cells.clear();
+        size = 0;
+    }
+
+    public synchronized void forEach(Visitor<? super T> visitor) {
+        for (Cell cell : cells.values()) {
+            visitCell(cell, Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE,
+                Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, visitor);
+        }
+    }
+
+    // ============================================================
+    // REGION: Todas las entradas dentro de la caja (bordes incluidos)
+    // ============================================================
+    public synchronized void forEachInBox(int minX, int minY, int minZ,
+                                          int maxX, int maxY, int maxZ,
+                                          Visitor<? super T> visitor) {
+        int minCellX = minX >> CELL_SHIFT;
+        int minCellZ = minZ >> CELL_SHIFT;
+        int maxCellX = maxX >> CELL_SHIFT;
+        int maxCellZ = maxZ >> CELL_SHIFT;
+        long area = ((long) maxCellX - minCellX + 1) * ((long) maxCellZ - minCellZ + 1);
+
+        if (area > cells.size()) {
+            // Region mas grande que lo que hay: mejor recorrer las celdas existentes
+            for (Map.Entry<Long, Cell> entry : cells.entrySet()) {
+                long key = entry.getKey();
+                int cellX = (int) (key >> 32);
+                int cellZ = (int) key;
+                if (cellX >= minCellX && cellX <= maxCellX && cellZ >= minCellZ && cellZ <= maxCellZ) {
+                    visitCell(entry.getValue(), minX, minY, minZ, maxX, maxY, maxZ, visitor);
+                }
+            }
+            return;
+        }
+
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+                Cell cell = cells.get(cellKey(cellX, cellZ));
+                if (cell != null) {
+                    visitCell(cell, minX, minY, minZ, maxX, maxY, maxZ, visitor);
+                }
+            }
+        }
+    }
+
+    // ============================================================
+    // RADIO: Entradas a distancia <= radius del centro (esfera)
+    // ============================================================
+    public void forEachInRadius(int centerX, int centerY, int centerZ, int radius,
+                                Visitor<? super T> visitor) {
+        long radiusSq = (long) radius * radius;
+        forEachInBox(centerX - radius, centerY - radius, centerZ - radius,
+            centerX + radius, centerY + radius, centerZ + radius,
+            (x, y, z, value) -> {
+                long dx = x - centerX;
+                long dy = y - centerY;
+                long dz = z - centerZ;
+                if (dx * dx + dy * dy + dz * dz <= radiusSq) {
+                    visitor.accept(x, y, z, value);
+                }
+            });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void visitCell(Cell cell, int minX, int minY, int minZ,
+                                      int maxX, int maxY, int maxZ, Visitor<? super T> visitor) {
+        for (int i = 0; i < cell.size; i++) {
+            long position = cell.positions[i];
+            int x = unpackX(position);
+            int y = unpackY(position);
+            int z = unpackZ(position);
+            if (x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ) {
+                visitor.accept(x, y, z, (T) cell.values[i]);
+            }
+        }
+    }
+
+    private static long cellKey(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+
+    // Misma disposicion que las coords de bloque: x/z 26 bits, y 12 bits
+    static long packPosition(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    // Los desplazamientos aritmeticos recuperan el signo de x/z
+    static int unpackX(long position) {
+        return (int) (position >> 38);
+    }
+
+    static int unpackZ(long position) {
+        return (int) (position << 26 >> 38);
+    }
+
+    static int unpackY(long position) {
+        return (int) (position & 0xFFF);
+    }
+}
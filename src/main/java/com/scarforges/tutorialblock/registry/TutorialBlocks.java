@@ -0,0 +1,85 @@
+/*
+ * ============================================================
+ * TUTORIAL: TutorialBlocks - Donde estan los bloques del plugin
+ * ============================================================
+ *
+ * Un BlockIndex por mundo con las papeleras (su TutorialTrashState)
+ * y las Enchant Tables, para contestar "donde estan y como de
+ * llenas" sin recorrer chunks.
+ *
+ * QUIEN LO MANTIENE AL DIA:
+ *   - Papelera:     TutorialTrashState.initialize() (colocar o cargar
+ *                   el chunk) y onDestroy() (romper o descargar)
+ *   - Enchant Table: lo mismo con su EnchantTableState (un BlockState
+ *                   sin datos): entra al colocarla o cargar su chunk,
+ *                   sale al romperla o descargarlo. Tras reiniciar, las
+ *                   mesas vuelven al indice cuando se carga su chunk.
+ *
+ * Los mundos se identifican por nombre, no por el World. Las
+ * papeleras SI guardan su TutorialTrashState (que apunta a su chunk
+ * y a su mundo), pero onDestroy() la quita al romperla o descargar
+ * su chunk: un mundo descargado no deja estados aqui. Solo estan
+ * los bloques de chunks cargados.
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.registry;
+
+import com.hypixel.hytale.server.core.universe.world.World;
+
+import com.scarforges.tutorialblock.blockstate.TutorialTrashState;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class TutorialBlocks {
+
+    // "Id" del JSON de la Enchant Table (Server/Item/Items/Tutorial_Customui_Table.json),
+    // que es tambien el "Id" de su State (EnchantTableState)
+    public static final String ENCHANT_TABLE_ID = "Tutorial_Customui_Table";
+
+    // Las mesas no tienen estado propio: el valor es solo un marcador
+    public static final Object ENCHANT_TABLE = ENCHANT_TABLE_ID;
+
+    private static final Map<String, BlockIndex<TutorialTrashState>> TRASH = new ConcurrentHashMap<>();
+    private static final Map<String, BlockIndex<Object>> ENCHANT_TABLES = new ConcurrentHashMap<>();
+
+    private TutorialBlocks() {
+    }
+
+    public static void addTrash(World world, int x, int y, int z, TutorialTrashState state) {
+        TRASH.computeIfAbsent(world.getName(), w -> new BlockIndex<>()).put(x, y, z, state);
+    }
+
+    public static void removeTrash(World world, int x, int y, int z, TutorialTrashState state) {
+        BlockIndex<TutorialTrashState> index = TRASH.get(world.getName());
+        if (index != null) {
+            index.remove(x, y, z, state);
+        }
+    }
+
+    public static void addEnchantTable(World world, int x, int y, int z) {
+        ENCHANT_TABLES.computeIfAbsent(world.getName(), w -> new BlockIndex<>()).put(x, y, z, ENCHANT_TABLE);
+    }
+
+    public static void removeEnchantTable(World world, int x, int y, int z) {
+        BlockIndex<Object> index = ENCHANT_TABLES.get(world.getName());
+        if (index != null) {
+            index.remove(x, y, z, ENCHANT_TABLE);
+        }
+    }
+
+    // Indices del mundo (vacios si aun no hay ningun bloque)
+    public static BlockIndex<TutorialTrashState> trash(World world) {
+        return TRASH.computeIfAbsent(world.getName(), w -> new BlockIndex<>());
+    }
+
+    public static BlockIndex<Object> enchantTables(World world) {
+        return ENCHANT_TABLES.computeIfAbsent(world.getName(), w -> new BlockIndex<>());
+    }
+
+    public static void clear() {
+        TRASH.clear();
+        ENCHANT_TABLES.clear();
+    }
+}
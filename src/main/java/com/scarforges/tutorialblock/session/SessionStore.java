@@ -0,0 +1,713 @@
+/*
+ * ============================================================
+ * TUTORIAL: SessionStore - Datos por jugador (UUID)
+ * ============================================================
+ *
+ * Antes, el contador de clicks vivia en cada EnchantTablePanel y se
+ * perdia al cerrar la UI. Aqui se guarda UNA vez por jugador, para
+ * todo el plugin, y sobrevive a reinicios:
+ *
+ *   - contadores (Counter): clicks, aperturas, stacks tirados...
+ *   - la semilla de encantamientos (EnchantingEngine): la inicial
+ *     derivada del UUID; nada la cambia (las ofertas no se aplican)
+ *   - preferencias (Preference), como bits de un int
+ *
+ * MEMORIA: los datos van en arrays primitivos, una posicion ("slot")
+ * por jugador. UuidTable traduce UUID -> slot sin crear objetos.
+ * Todo slot de un jugador que no esta conectado (desconectado, o
+ * consultado sin markOnline()) va en una lista LRU: si hay mas de
+ * "maxOffline", se descartan los mas antiguos que ya estan en disco
+ * (ni DIRTY ni FLUSHING: un flush() en curso no cuenta como escrito).
+ * Si vuelven, se recargan del archivo. En memoria solo estan los
+ * conectados y "maxOffline" desconectados: el indice UUID -> registro
+ * NO se carga, se busca en el propio archivo.
+ *
+ * CARGA: preload() lee el registro del archivo FUERA del lock; el
+ * plugin lo llama desde su PluginExecutor al conectarse el jugador,
+ * asi el hilo del mundo ya lo encuentra en memoria. Si aun no esta
+ * (recien recargado, o descartado por la LRU), el primer uso lo lee
+ * igualmente fuera del lock.
+ *
+ * DISCO: el archivo es una tabla hash de registros de tamaño fijo
+ * (RECORD_BYTES), como UuidTable pero en disco: el UUID elige el
+ * cubo y se sondea hacia delante hasta encontrarlo o dar con uno
+ * vacio. Buscar es leer unos pocos registros seguidos; guardar es
+ * reescribir solo los registros modificados. Con mas de la mitad
+ * de los cubos ocupados se reescribe con el doble (en un archivo
+ * temporal que luego sustituye al actual). flush() lo programa el
+ * plugin en su PluginExecutor cada "SessionFlushSeconds" (y close()
+ * hace el ultimo al apagar).
+ *
+ *   Cabecera (32 bytes): MAGIC, VERSION, RECORD_BYTES, cubos, ocupados
+ *   Registro (64 bytes): [uuid x2][semilla][ultima vez visto]
+ *                        [preferencias][MAX_COUNTERS contadores]
+ *                        (uuid 0,0 = cubo vacio)
+ *
+ * Un archivo de la VERSION 1 (registros uno detras de otro) se
+ * convierte al abrirlo.
+ *
+ * HILOS: todos los metodos publicos se pueden llamar desde cualquier
+ * hilo (lock sobre this); la lectura y escritura a disco se hacen
+ * fuera de el, con "fileLock" (lecturas a la vez, flush() en
+ * exclusiva mientras escribe o reescribe el archivo).
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.session;
+
+import com.scarforges.tutorialblock.metrics.PluginMetrics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public final class SessionStore implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger("Tutorial-Sessions");
+
+    // Contadores por jugador (como mucho MAX_COUNTERS, caben en el registro)
+    public enum Counter {
+        HELLO_CLICKS,
+        ENCHANT_OPENS,
+        TRASH_STACKS
+    }
+
+    // Preferencias por jugador: un bit cada una (por defecto todas apagadas)
+    public enum Preference {
+        // No enviar mensajes de chat de los bloques del tutorial
+        QUIET
+    }
+
+    private static final int MAGIC = 0x54535331; // "TSS1"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 32;
+    private static final int RECORD_BYTES = 64;
+    private static final int MAX_COUNTERS = 7;
+    private static final int SCAN_RECORDS = 1_024;
+    private static final int PROBE_RECORDS = 16;
+    private static final int MIN_BUCKETS = 1_024;
+
+    // VERSION 1: cabecera de 16 bytes y registros seguidos
+    private static final int V1_HEADER_BYTES = 16;
+
+    private static final byte ONLINE = 1;
+    private static final byte DIRTY = 2;
+    // Copiado por un flush() que aun no ha terminado de escribirlo
+    private static final byte FLUSHING = 4;
+    private static final int NONE = -1;
+
+    // Un registro leido fuera del lock (data == null: no esta en el archivo)
+    // y las evicciones que llevaba la LRU cuando se busco
+    private record Loaded(ByteBuffer data, long evictions) {
+    }
+
+    private final Path file;
+    private final int maxOffline;
+
+    // Archivo: el canal cambia al reescribirlo (grow), siempre con fileLock
+    private final ReentrantReadWriteLock fileLock = new ReentrantReadWriteLock();
+    private FileChannel channel;
+    private int buckets;
+    private int stored;
+
+    // UUID -> slot en memoria
+    private final UuidTable slots = new UuidTable(64);
+    // Conectados ahora mismo (valor sin uso): decide ONLINE al crear un slot
+    private final UuidTable online = new UuidTable(64);
+
+    // Un elemento por slot
+    private long[] msb;
+    private long[] lsb;
+    private long[] seeds;
+    private long[] lastSeen;
+    private int[] prefs;
+    private int[] counters; // MAX_COUNTERS por slot
+    private byte[] flags;
+
+    // Lista doblemente enlazada de desconectados: head = el mas antiguo
+    private int[] prev;
+    private int[] next;
+    private int head = NONE;
+    private int tail = NONE;
+    private int offline = 0;
+    // Slots descartados desde el arranque: invalida lo leido en prefetch()
+    private long evictions = 0;
+
+    private int[] free = new int[16];
+    private int freeCount = 0;
+    private int used = 0;
+
+    private final Object flushLock = new Object();
+
+    public SessionStore(Path file, int maxOffline) throws IOException {
+        this.file = file;
+        this.maxOffline = maxOffline;
+
+        Path parent = file.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            openFile();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        allocate(64);
+    }
+
+    // ============================================================
+    // API: contadores, semilla y preferencias. Si el jugador no esta
+    // en memoria, su registro se lee antes de tomar el lock.
+    // ============================================================
+    public int increment(UUID player, Counter counter) {
+        return add(player, counter, 1);
+    }
+
+    public int add(UUID player, Counter counter, int amount) {
+        Loaded loaded = prefetch(player);
+        synchronized (this) {
+            int s = slot(player, loaded);
+            flags[s] |= DIRTY;
+            return counters[s * MAX_COUNTERS + counter.ordinal()] += amount;
+        }
+    }
+
+    // slot() puede hacer crecer los arrays: se resuelve antes de leerlos
+    public int get(UUID player, Counter counter) {
+        Loaded loaded = prefetch(player);
+        synchronized (this) {
+            int s = slot(player, loaded);
+            return counters[s * MAX_COUNTERS + counter.ordinal()];
+        }
+    }
+
+    public long enchantSeed(UUID player) {
+        Loaded loaded = prefetch(player);
+        synchronized (this) {
+            return seeds[slot(player, loaded)];
+        }
+    }
+
+    public boolean preference(UUID player, Preference preference) {
+        Loaded loaded = prefetch(player);
+        synchronized (this) {
+            int s = slot(player, loaded);
+            return (prefs[s] & (1 << preference.ordinal())) != 0;
+        }
+    }
+
+    public void setPreference(UUID player, Preference preference, boolean value) {
+        Loaded loaded = prefetch(player);
+        synchronized (this) {
+            int s = slot(player, loaded);
+            int bit = 1 << preference.ordinal();
+            prefs[s] = value ? prefs[s] | bit : prefs[s] & ~bit;
+            flags[s] |= DIRTY;
+        }
+    }
+
+    // Trae el jugador a memoria (desde el executor, al conectarse)
+    public void preload(UUID player) {
+        Loaded loaded = prefetch(player);
+        synchronized (this) {
+            slot(player, loaded);
+        }
+    }
+
+    // ============================================================
+    // CONEXION: PlayerConnectEvent / PlayerDisconnectEvent. No tocan
+    // el archivo: solo cambian el estado del slot si ya esta en
+    // memoria (el que se cree despues lo mira en "online").
+    // ============================================================
+    public synchronized void markOnline(UUID player) {
+        long m = player.getMostSignificantBits();
+        long l = player.getLeastSignificantBits();
+        online.put(m, l, 1);
+        int s = slots.get(m, l);
+        if (s != NONE && (flags[s] & ONLINE) == 0) {
+            unlink(s);
+            offline--;
+            flags[s] |= ONLINE;
+        }
+    }
+
+    public synchronized void markOffline(UUID player) {
+        long m = player.getMostSignificantBits();
+        long l = player.getLeastSignificantBits();
+        online.remove(m, l);
+        int s = slots.get(m, l);
+        if (s == NONE || (flags[s] & ONLINE) == 0) {
+            return;
+        }
+        flags[s] &= ~ONLINE;
+        flags[s] |= DIRTY;
+        lastSeen[s] = System.currentTimeMillis();
+        linkLast(s);
+        offline++;
+        evict();
+    }
+
+    public synchronized int size() {
+        return slots.size();
+    }
+
+    public synchronized int offlineCount() {
+        return offline;
+    }
+
+    // ============================================================
+    // FLUSH: Escribe los slots modificados. Copia los registros bajo
+    // el lock y escribe en disco fuera de el. Mientras tanto los
+    // slots copiados llevan FLUSHING: evict() no los descarta hasta
+    // que la escritura termina bien (si falla, vuelven a DIRTY).
+    // ============================================================
+    public void flush() throws IOException {
+        synchronized (flushLock) {
+            long start = System.nanoTime();
+            int[] flushed;
+            ByteBuffer batch;
+
+            synchronized (this) {
+                int dirty = 0;
+                for (int s = 0; s < used; s++) {
+                    if ((flags[s] & DIRTY) != 0) {
+                        dirty++;
+                    }
+                }
+                if (dirty == 0) {
+                    return;
+                }
+
+                flushed = new int[dirty];
+                batch = ByteBuffer.allocate(dirty * RECORD_BYTES);
+                int n = 0;
+                for (int s = 0; s < used; s++) {
+                    if ((flags[s] & DIRTY) == 0) {
+                        continue;
+                    }
+                    writeRecord(batch, s);
+                    flushed[n++] = s;
+                    flags[s] = (byte) ((flags[s] & ~DIRTY) | FLUSHING);
+                }
+            }
+
+            try {
+                fileLock.writeLock().lock();
+                try {
+                    // Peor caso: todos son jugadores nuevos en el archivo
+                    if ((long) (stored + flushed.length) * 2 > buckets) {
+                        grow(stored + flushed.length);
+                    }
+                    int added = 0;
+                    for (int i = 0; i < flushed.length; i++) {
+                        ByteBuffer record = batch.slice(i * RECORD_BYTES, RECORD_BYTES);
+                        int r = probe(channel, buckets, record.getLong(0), record.getLong(8), null);
+                        if (r < 0) {
+                            r = -r - 1;
+                            added++;
+                        }
+                        writeFully(channel, record, position(r));
+                    }
+                    if (added > 0) {
+                        stored += added;
+                        writeHeader(channel, buckets, stored);
+                    }
+                } finally {
+                    fileLock.writeLock().unlock();
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                // Volver a marcar: no se pueden descartar hasta que esten en disco
+                // (con FLUSHING nadie los ha liberado ni reutilizado)
+                synchronized (this) {
+                    for (int s : flushed) {
+                        flags[s] = (byte) ((flags[s] & ~FLUSHING) | DIRTY);
+                    }
+                }
+                throw e;
+            }
+
+            synchronized (this) {
+                for (int s : flushed) {
+                    flags[s] &= ~FLUSHING;
+                }
+                evict();
+            }
+            PluginMetrics.Timer.SESSION_FLUSH.record(System.nanoTime() - start);
+        }
+    }
+
+    // Guarda lo pendiente y cierra el archivo (llamar en shutdown())
+    @Override
+    public void close() {
+        try {
+            flush();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "No se pudieron guardar las sesiones", e);
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Error cerrando el archivo de sesiones", e);
+        }
+    }
+
+    // ============================================================
+    // SLOTS
+    // ============================================================
+
+    // Registro del archivo de un jugador que no esta en memoria, leido
+    // sin el lock (null = ya estaba en memoria, no se leyo nada)
+    private Loaded prefetch(UUID player) {
+        long m = player.getMostSignificantBits();
+        long l = player.getLeastSignificantBits();
+        long seen;
+        synchronized (this) {
+            if (slots.get(m, l) != NONE) {
+                return null;
+            }
+            seen = evictions;
+        }
+        return new Loaded(readRecord(m, l), seen);
+    }
+
+    // Slot del jugador: en memoria, cargado de "loaded" (prefetch) o nuevo.
+    // Un slot nuevo de alguien no conectado entra en la LRU.
+    private int slot(UUID player, Loaded loaded) {
+        long m = player.getMostSignificantBits();
+        long l = player.getLeastSignificantBits();
+        int s = slots.get(m, l);
+        if (s != NONE) {
+            if ((flags[s] & ONLINE) == 0) {
+                // Desconectado pero usado: pasa al final de la LRU
+                unlink(s);
+                linkLast(s);
+            }
+            return s;
+        }
+
+        ByteBuffer record;
+        if (loaded == null || loaded.evictions() != evictions) {
+            // Descartado por la LRU entre prefetch() y el lock: caso raro,
+            // se lee aqui para no pisar sus datos con los iniciales
+            record = readRecord(m, l);
+        } else {
+            record = loaded.data();
+        }
+
+        s = allocateSlot();
+        msb[s] = m;
+        lsb[s] = l;
+        if (record != null) {
+            seeds[s] = record.getLong(16);
+            lastSeen[s] = record.getLong(24);
+            prefs[s] = record.getInt(32);
+            for (int c = 0; c < MAX_COUNTERS; c++) {
+                counters[s * MAX_COUNTERS + c] = record.getInt(36 + c * 4);
+            }
+        } else {
+            // Semilla inicial derivada del UUID (la misma que antes de guardarla)
+            seeds[s] = m ^ l;
+            lastSeen[s] = 0L;
+            prefs[s] = 0;
+            Arrays.fill(counters, s * MAX_COUNTERS, (s + 1) * MAX_COUNTERS, 0);
+        }
+        slots.put(m, l, s);
+
+        if (online.get(m, l) != NONE) {
+            flags[s] = ONLINE;
+        } else {
+            // Antes de enlazarlo: evict() nunca descarta el slot que devolvemos
+            evict();
+            flags[s] = 0;
+            linkLast(s);
+            offline++;
+        }
+        return s;
+    }
+
+    // Descarta desconectados antiguos ya guardados hasta volver al limite
+    private void evict() {
+        int s = head;
+        while (offline > maxOffline && s != NONE) {
+            int following = next[s];
+            if ((flags[s] & (DIRTY | FLUSHING)) == 0) {
+                unlink(s);
+                offline--;
+                slots.remove(msb[s], lsb[s]);
+                flags[s] = 0;
+                releaseSlot(s);
+                evictions++;
+                PluginMetrics.Counter.SESSION_EVICTIONS.increment();
+            }
+            s = following;
+        }
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return free[--freeCount];
+        }
+        if (used == msb.length) {
+            allocate(used << 1);
+        }
+        return used++;
+    }
+
+    private void releaseSlot(int s) {
+        if (freeCount == free.length) {
+            free = Arrays.copyOf(free, freeCount << 1);
+        }
+        free[freeCount++] = s;
+    }
+
+    private void linkLast(int s) {
+        prev[s] = tail;
+        next[s] = NONE;
+        if (tail == NONE) {
+            head = s;
+        } else {
+            next[tail] = s;
+        }
+        tail = s;
+    }
+
+    private void unlink(int s) {
+        if (prev[s] == NONE) {
+            head = next[s];
+        } else {
+            next[prev[s]] = next[s];
+        }
+        if (next[s] == NONE) {
+            tail = prev[s];
+        } else {
+            prev[next[s]] = prev[s];
+        }
+        prev[s] = NONE;
+        next[s] = NONE;
+    }
+
+    private void allocate(int capacity) {
+        if (msb == null) {
+            msb = new long[capacity];
+            lsb = new long[capacity];
+            seeds = new long[capacity];
+            lastSeen = new long[capacity];
+            prefs = new int[capacity];
+            counters = new int[capacity * MAX_COUNTERS];
+            flags = new byte[capacity];
+            prev = new int[capacity];
+            next = new int[capacity];
+            return;
+        }
+        msb = Arrays.copyOf(msb, capacity);
+        lsb = Arrays.copyOf(lsb, capacity);
+        seeds = Arrays.copyOf(seeds, capacity);
+        lastSeen = Arrays.copyOf(lastSeen, capacity);
+        prefs = Arrays.copyOf(prefs, capacity);
+        counters = Arrays.copyOf(counters, capacity * MAX_COUNTERS);
+        flags = Arrays.copyOf(flags, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        next = Arrays.copyOf(next, capacity);
+    }
+
+    // ============================================================
+    // ARCHIVO
+    // ============================================================
+    private void openFile() throws IOException {
+        if (channel.size() < V1_HEADER_BYTES) {
+            channel.truncate(0);
+            buckets = MIN_BUCKETS;
+            stored = 0;
+            extend(channel, buckets);
+            writeHeader(channel, buckets, stored);
+            return;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        readFully(channel, header, 0);
+        int magic = header.getInt(0);
+        int version = header.getInt(4);
+        int recordBytes = header.getInt(8);
+        if (magic != MAGIC || recordBytes != RECORD_BYTES || (version != 1 && version != VERSION)) {
+            throw new IOException("Archivo de sesiones con formato desconocido");
+        }
+
+        if (version == 1) {
+            // Registros seguidos: se pasan a la tabla hash una sola vez
+            int records = (int) ((channel.size() - V1_HEADER_BYTES) / RECORD_BYTES);
+            rewrite(V1_HEADER_BYTES, records, records);
+            LOGGER.info("Archivo de sesiones convertido a la version " + VERSION + " (" + stored + " jugadores)");
+            return;
+        }
+
+        buckets = header.getInt(12);
+        stored = header.getInt(16);
+        if (Integer.bitCount(buckets) != 1 || channel.size() < position(buckets)) {
+            throw new IOException("Archivo de sesiones truncado o corrupto");
+        }
+    }
+
+    // Reescribe el archivo con cubos para "records" jugadores (mitad libres)
+    private void grow(int records) throws IOException {
+        rewrite(HEADER_BYTES, buckets, records);
+    }
+
+    // Copia los "sourceRecords" registros del archivo actual (a partir de
+    // "sourceHeader") a uno nuevo y lo pone en su lugar
+    private void rewrite(int sourceHeader, int sourceRecords, int records) throws IOException {
+        int newBuckets = MIN_BUCKETS;
+        while ((long) records * 2 > newBuckets) {
+            newBuckets <<= 1;
+        }
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        int copied = 0;
+        try (FileChannel target = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            extend(target, newBuckets);
+            ByteBuffer chunk = ByteBuffer.allocate(SCAN_RECORDS * RECORD_BYTES);
+            for (int first = 0; first < sourceRecords; first += SCAN_RECORDS) {
+                int count = Math.min(SCAN_RECORDS, sourceRecords - first);
+                chunk.clear().limit(count * RECORD_BYTES);
+                readFully(channel, chunk, sourceHeader + (long) first * RECORD_BYTES);
+                for (int i = 0; i < count; i++) {
+                    ByteBuffer record = chunk.slice(i * RECORD_BYTES, RECORD_BYTES);
+                    long m = record.getLong(0);
+                    long l = record.getLong(8);
+                    if (m == 0L && l == 0L) {
+                        continue;
+                    }
+                    int r = probe(target, newBuckets, m, l, null);
+                    if (r < 0) {
+                        copied++;
+                        writeFully(target, record, HEADER_BYTES + (long) (-r - 1) * RECORD_BYTES);
+                    }
+                }
+            }
+            writeHeader(target, newBuckets, copied);
+            target.force(true);
+        }
+
+        // Sustituir el archivo y reabrirlo (con fileLock, nadie lo esta leyendo)
+        channel.close();
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            // Si no se pudo mover, se sigue con el archivo anterior
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        buckets = newBuckets;
+        stored = copied;
+    }
+
+    // Registro de un jugador leido del archivo, o null si no esta (o fallo)
+    private ByteBuffer readRecord(long m, long l) {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+        fileLock.readLock().lock();
+        try {
+            if (probe(channel, buckets, m, l, record) < 0) {
+                return null;
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "No se pudo leer la sesion de un jugador", e);
+            return null;
+        } finally {
+            fileLock.readLock().unlock();
+        }
+        PluginMetrics.Counter.SESSION_LOADS.increment();
+        return record;
+    }
+
+    // ============================================================
+    // PROBE: sondeo lineal desde el cubo del UUID, PROBE_RECORDS
+    // registros por lectura. Devuelve el registro del UUID (y lo
+    // copia en "out" si no es null) o -(primer cubo vacio + 1).
+    // ============================================================
+    private static int probe(FileChannel source, int buckets, long m, long l, ByteBuffer out) throws IOException {
+        int mask = buckets - 1;
+        int bucket = bucketOf(m, l) & mask;
+        ByteBuffer chunk = ByteBuffer.allocate(PROBE_RECORDS * RECORD_BYTES);
+        for (int seen = 0; seen < buckets; ) {
+            // Sin pasar del final: el siguiente bloque vuelve al cubo 0
+            int count = Math.min(PROBE_RECORDS, buckets - bucket);
+            chunk.clear().limit(count * RECORD_BYTES);
+            readFully(source, chunk, HEADER_BYTES + (long) bucket * RECORD_BYTES);
+            for (int i = 0; i < count; i++) {
+                long rm = chunk.getLong(i * RECORD_BYTES);
+                long rl = chunk.getLong(i * RECORD_BYTES + 8);
+                if (rm == m && rl == l) {
+                    if (out != null) {
+                        out.clear();
+                        out.put(chunk.slice(i * RECORD_BYTES, RECORD_BYTES)).flip();
+                    }
+                    return bucket + i;
+                }
+                if (rm == 0L && rl == 0L) {
+                    return -(bucket + i) - 1;
+                }
+            }
+            seen += count;
+            bucket = (bucket + count) & mask;
+        }
+        throw new IOException("Archivo de sesiones sin cubos libres");
+    }
+
+    // El mismo hash que UuidTable
+    private static int bucketOf(long m, long l) {
+        long h = (m ^ Long.rotateLeft(l, 32)) * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 29;
+        return (int) h;
+    }
+
+    private static long position(int record) {
+        return HEADER_BYTES + (long) record * RECORD_BYTES;
+    }
+
+    // Tamaño final del archivo: los cubos sin escribir se leen como ceros (vacios)
+    private static void extend(FileChannel target, int buckets) throws IOException {
+        writeFully(target, ByteBuffer.allocate(1), position(buckets) - 1);
+    }
+
+    private static void writeHeader(FileChannel target, int buckets, int stored) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putInt(RECORD_BYTES).putInt(buckets).putInt(stored).clear();
+        writeFully(target, header, 0);
+    }
+
+    private static void writeFully(FileChannel target, ByteBuffer data, long position) throws IOException {
+        while (data.hasRemaining()) {
+            position += target.write(data, position);
+        }
+    }
+
+    // Lee hasta llenar "into"; pasado el final del archivo quedan ceros
+    private static void readFully(FileChannel source, ByteBuffer into, long position) throws IOException {
+        int read;
+        while (into.hasRemaining() && (read = source.read(into, position)) > 0) {
+            position += read;
+        }
+        while (into.hasRemaining()) {
+            into.put((byte) 0);
+        }
+    }
+
+    private void writeRecord(ByteBuffer out, int s) {
+        out.putLong(msb[s]).putLong(lsb[s]).putLong(seeds[s]).putLong(lastSeen[s]).putInt(prefs[s]);
+        for (int c = 0; c < MAX_COUNTERS; c++) {
+            out.putInt(counters[s * MAX_COUNTERS + c]);
+        }
+    }
+}
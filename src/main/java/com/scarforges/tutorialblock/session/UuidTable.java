@@ -0,0 +1,117 @@
+/*
+ * ============================================================
+ * TUTORIAL: UuidTable - Mapa UUID -> int sin objetos
+ * ============================================================
+ *
+ * Tabla hash de direccionamiento abierto (como InteractionThrottle):
+ * el UUID se guarda como dos longs y el valor como int, sin crear
+ * un UUID ni un Integer por entrada. -1 = hueco libre / no existe.
+ *
+ * No es thread-safe: SessionStore la protege con su propio lock.
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.session;
+
+import java.util.Arrays;
+
+final class UuidTable {
+
+    private long[] msb;
+    private long[] lsb;
+    private int[] values;
+    private int mask;
+    private int size = 0;
+
+    UuidTable(int initialCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(16, initialCapacity - 1) << 1);
+        allocate(capacity);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(long m, long l) {
+        for (int i = indexOf(m, l); values[i] != -1; i = (i + 1) & mask) {
+            if (msb[i] == m && lsb[i] == l) {
+                return values[i];
+            }
+        }
+        return -1;
+    }
+
+    void put(long m, long l, int value) {
+        int i = indexOf(m, l);
+        for (; values[i] != -1; i = (i + 1) & mask) {
+            if (msb[i] == m && lsb[i] == l) {
+                values[i] = value;
+                return;
+            }
+        }
+        msb[i] = m;
+        lsb[i] = l;
+        values[i] = value;
+        if (++size * 2 > values.length) {
+            grow();
+        }
+    }
+
+    // Borrado con desplazamiento hacia atras: no deja "tumbas"
+    void remove(long m, long l) {
+        int i = indexOf(m, l);
+        while (values[i] != -1 && (msb[i] != m || lsb[i] != l)) {
+            i = (i + 1) & mask;
+        }
+        if (values[i] == -1) {
+            return;
+        }
+
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (values[j] == -1) {
+                break;
+            }
+            int home = indexOf(msb[j], lsb[j]);
+            // Si "home" esta en (i, j] la entrada j sigue siendo alcanzable
+            boolean reachable = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+            if (reachable) {
+                continue;
+            }
+            msb[i] = msb[j];
+            lsb[i] = lsb[j];
+            values[i] = values[j];
+            i = j;
+        }
+        values[i] = -1;
+        size--;
+    }
+
+    private int indexOf(long m, long l) {
+        long h = (m ^ Long.rotateLeft(l, 32)) * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 29;
+        return (int) h & mask;
+    }
+
+    private void grow() {
+        long[] oldMsb = msb;
+        long[] oldLsb = lsb;
+        int[] oldValues = values;
+        allocate(oldValues.length << 1);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != -1) {
+                put(oldMsb[i], oldLsb[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        msb = new long[capacity];
+        lsb = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, -1);
+        mask = capacity - 1;
+        size = 0;
+    }
+}
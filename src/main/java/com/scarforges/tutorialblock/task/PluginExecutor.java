@@ -0,0 +1,177 @@
+/*
+ * ============================================================
+ * TUTORIAL: PluginExecutor - Tareas fuera del hilo del mundo
+ * ============================================================
+ *
+ * El hilo de cada mundo ejecuta los ticks: si hacemos I/O o calculos
+ * pesados ahi, el servidor va a tirones. Este executor (uno por
+ * plugin, creado en start() y cerrado en shutdown()) ejecuta esas
+ * tareas en hilos virtuales:
+ *
+ *   executor.tryExecute(tarea)        -> false si la cola esta llena
+ *   executor.submit(callable)         -> CompletableFuture
+ *   executor.submit(callable, world, resultado -> ..., error -> ...)
+ *                                     -> el resultado (o el error) vuelve
+ *                                        al hilo del mundo con world.execute()
+ *   executor.scheduleAtFixedRate(...) -> tareas periodicas
+ *
+ * CONTRAPRESION: como mucho "capacity" tareas pendientes o en marcha.
+ * Si se llena, tryExecute() devuelve false al momento (nunca bloquea
+ * al hilo del mundo) y el que llama decide: reintentar, descartar...
+ *
+ * METRICAS: tasks.pending (profundidad), tasks.wait (cola -> inicio),
+ * tasks.run (duracion), tasks.rejected y tasks.failed.
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.task;
+
+import com.scarforges.tutorialblock.metrics.PluginMetrics;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public final class PluginExecutor implements Executor, AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger("Tutorial-Tasks");
+
+    private final ExecutorService workers =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("Tutorial-Task-", 0).factory());
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "Tutorial-Scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Semaphore permits;
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile boolean closed = false;
+
+    public PluginExecutor(int capacity) {
+        this.permits = new Semaphore(Math.max(1, capacity));
+        PluginMetrics.Gauge.TASKS_PENDING.bind(pending::get);
+    }
+
+    // ============================================================
+    // TRY EXECUTE: Nunca bloquea. false = lleno o cerrado.
+    // ============================================================
+    public boolean tryExecute(Runnable task) {
+        if (closed || !permits.tryAcquire()) {
+            PluginMetrics.Counter.TASKS_REJECTED.increment();
+            return false;
+        }
+
+        long submitted = System.nanoTime();
+        pending.incrementAndGet();
+        try {
+            workers.execute(() -> run(task, submitted));
+        } catch (RejectedExecutionException e) {
+            pending.decrementAndGet();
+            permits.release();
+            PluginMetrics.Counter.TASKS_REJECTED.increment();
+            return false;
+        }
+        return true;
+    }
+
+    // Contrato de Executor: si no cabe, RejectedExecutionException
+    @Override
+    public void execute(Runnable task) {
+        if (!tryExecute(task)) {
+            throw new RejectedExecutionException("Cola de tareas del plugin llena");
+        }
+    }
+
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        boolean accepted = tryExecute(() -> {
+            try {
+                future.complete(task.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        if (!accepted) {
+            future.completeExceptionally(new RejectedExecutionException("Cola de tareas del plugin llena"));
+        }
+        return future;
+    }
+
+    // ============================================================
+    // SUBMIT + HANDOFF: "task" se ejecuta aqui; "onWorld" recibe el
+    // resultado en el hilo del mundo (el World es un Executor). Si
+    // "task" falla, "onError" recibe la excepcion, tambien en el hilo
+    // del mundo. false = lleno o cerrado (no se llama a ninguno).
+    // ============================================================
+    public <T> boolean submit(Callable<T> task, Executor world,
+                              Consumer<? super T> onWorld, Consumer<? super Throwable> onError) {
+        return tryExecute(() -> {
+            T result;
+            try {
+                result = task.call();
+            } catch (Throwable t) {
+                PluginMetrics.Counter.TASKS_FAILED.increment();
+                LOGGER.log(Level.WARNING, "Error en una tarea del plugin", t);
+                world.execute(() -> onError.accept(t));
+                return;
+            }
+            world.execute(() -> onWorld.accept(result));
+        });
+    }
+
+    // Cada "periodMillis" intenta encolar la tarea (si esta lleno, se salta esa vez)
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long periodMillis) {
+        return timer.scheduleAtFixedRate(() -> tryExecute(task), periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public int pending() {
+        return pending.get();
+    }
+
+    // ============================================================
+    // CLOSE: Deja de aceptar tareas y espera a las que quedan.
+    // ============================================================
+    @Override
+    public void close() {
+        closed = true;
+        timer.shutdownNow();
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+                LOGGER.warning(pending.get() + " tarea(s) sin terminar al apagar el plugin");
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            workers.shutdownNow();
+        }
+        PluginMetrics.Gauge.TASKS_PENDING.unbind();
+    }
+
+    private void run(Runnable task, long submitted) {
+        long start = System.nanoTime();
+        PluginMetrics.Timer.TASK_WAIT.record(start - submitted);
+        try {
+            task.run();
+        } catch (Throwable t) {
+            PluginMetrics.Counter.TASKS_FAILED.increment();
+            LOGGER.log(Level.WARNING, "Error en una tarea del plugin", t);
+        } finally {
+            pending.decrementAndGet();
+            permits.release();
+            PluginMetrics.Timer.TASK_RUN.record(System.nanoTime() - start);
+        }
+    }
+}
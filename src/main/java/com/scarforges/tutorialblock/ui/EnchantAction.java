@@ -0,0 +1,48 @@
+/*
+ * ============================================================
+ * TUTORIAL: EnchantAction - Acciones de la UI del Enchant Table
+ * ============================================================
+ *
+ * Cada boton del panel envia un "ActionId" al servidor.
+ * En vez de comparar Strings en cada click, el CODEC de
+ * EventActionData convierte el ActionId en uno de estos valores
+ * una sola vez, al decodificar el evento.
+ *
+ * El id() de cada accion es el MISMO String que se usa al
+ * vincular los botones en build(), asi nunca se desincronizan.
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.ui;
+
+public enum EnchantAction {
+
+    HELLO("HELLO"),
+    CLOSE("CLOSE");
+
+    private final String id;
+
+    EnchantAction(String id) {
+        this.id = id;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    // Devuelve null si el ActionId falta o no es conocido.
+    // No lanza excepciones ni crea objetos.
+    public static EnchantAction fromId(String id) {
+        if (id == null) {
+            return null;
+        }
+        switch (id) {
+            case "HELLO":
+                return HELLO;
+            case "CLOSE":
+                return CLOSE;
+            default:
+                return null;
+        }
+    }
+}
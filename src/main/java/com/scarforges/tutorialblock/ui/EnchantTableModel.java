@@ -0,0 +1,160 @@
+/*
+ * ============================================================
+ * TUTORIAL: EnchantTableModel - Estado compartido de UNA mesa
+ * ============================================================
+ *
+ * Cada jugador tiene su propio EnchantTablePanel, pero hay datos que
+ * son de la mesa (del bloque) y no del jugador: cuantos la estan
+ * usando, cuantos saludos lleva, quien saludo el ultimo...
+ *
+ * Hay un modelo por posicion de bloque (y mundo). Cuando cambia:
+ *   1. se calcula el texto UNA vez (UIUpdateBuffer compartido)
+ *   2. se programa UN flush por tick con world.execute()
+ *   3. el flush construye UN paquete CustomPage (los comandos se
+ *      serializan una vez) y se entrega tal cual a todos los paneles
+ *      abiertos en esa mesa
+ * El coste crece con los cambios, no con jugadores x cambios.
+ *
+ * Los modelos se guardan por NOMBRE de mundo (como TutorialBlocks),
+ * no por World: un panel que desaparece sin onDismiss() no retiene
+ * el mundo. EnchantTableState.onDestroy() quita el modelo al romper
+ * la mesa o descargar su chunk (tambien al descargar el mundo).
+ *
+ * HILOS: todo se llama desde el hilo del mundo de la mesa.
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.ui;
+
+import com.hypixel.hytale.protocol.packets.interface_.CustomPage;
+import com.hypixel.hytale.protocol.packets.interface_.CustomPageLifetime;
+import com.hypixel.hytale.server.core.ui.builder.UICommandBuilder;
+import com.hypixel.hytale.server.core.ui.builder.UIEventBuilder;
+import com.hypixel.hytale.server.core.universe.world.World;
+
+import com.scarforges.tutorialblock.message.Messages;
+import com.scarforges.tutorialblock.metrics.PluginMetrics;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class EnchantTableModel {
+
+    static final String TABLE_STATUS = "#TableStatus.Text";
+
+    // Clave del paquete: la de InteractiveCustomUIPage (nombre de la clase de la pagina)
+    private static final String PAGE_KEY = EnchantTablePanel.class.getName();
+
+    private record Key(String world, int x, int y, int z) {
+    }
+
+    private static final Map<Key, EnchantTableModel> MODELS = new ConcurrentHashMap<>();
+
+    private final Key key;
+    private final List<EnchantTablePanel> viewers = new ArrayList<>();
+    private final UIUpdateBuffer updates = new UIUpdateBuffer();
+    private int hellos = 0;
+    private String lastHello = null;
+
+    private EnchantTableModel(Key key) {
+        this.key = key;
+        updates.assume(TABLE_STATUS, "");
+    }
+
+    // El modelo de la mesa en (x, y, z); se crea con el primer jugador
+    public static EnchantTableModel of(World world, int x, int y, int z) {
+        return MODELS.computeIfAbsent(new Key(world.getName(), x, y, z), EnchantTableModel::new);
+    }
+
+    // La mesa se rompio o se descargo su chunk (EnchantTableState.onDestroy)
+    public static void remove(World world, int x, int y, int z) {
+        MODELS.remove(new Key(world.getName(), x, y, z));
+    }
+
+    public static void clear() {
+        MODELS.clear();
+    }
+
+    public static int activeTables() {
+        return MODELS.size();
+    }
+
+    // Paneles abiertos en la mesa de (x, y, z), 0 si nadie la usa
+    public static int viewersAt(World world, int x, int y, int z) {
+        EnchantTableModel model = MODELS.get(new Key(world.getName(), x, y, z));
+        return model != null ? model.viewers.size() : 0;
+    }
+
+    // ============================================================
+    // JOIN: Un panel se abre en esta mesa. Su build() recibe el
+    // estado actual directamente (va en el mismo paquete que el .ui).
+    // ============================================================
+    public void join(EnchantTablePanel panel, UICommandBuilder uiBuilder, World world) {
+        if (!viewers.contains(panel)) {
+            viewers.add(panel);
+        }
+        refresh(world);
+        uiBuilder.set(TABLE_STATUS, updates.current(TABLE_STATUS));
+    }
+
+    public void leave(EnchantTablePanel panel, World world) {
+        if (!viewers.remove(panel)) {
+            return;
+        }
+        if (viewers.isEmpty()) {
+            MODELS.remove(key, this);
+            return;
+        }
+        refresh(world);
+    }
+
+    public void hello(String username, World world) {
+        hellos++;
+        lastHello = username;
+        refresh(world);
+    }
+
+    // Recalcula el texto una vez; solo se envia si cambio.
+    // El World llega de quien llama: el modelo no lo guarda.
+    private void refresh(World world) {
+        String status = lastHello != null
+            ? Messages.text(Messages.Key.TABLE_HELLOS, viewers.size(), hellos, lastHello)
+            : Messages.text(Messages.Key.TABLE_VIEWERS, viewers.size());
+        updates.set(TABLE_STATUS, status);
+        updates.schedule(world, this::flush);
+    }
+
+    // ============================================================
+    // FLUSH: Un paquete para todos los paneles de la mesa. Es lo que
+    // haria sendUpdate() en cada panel, pero getCommands() (que
+    // serializa cada valor) se llama una vez, no una por jugador.
+    // ============================================================
+    private void flush() {
+        long start = System.nanoTime();
+        UICommandBuilder uiBuilder = new UICommandBuilder();
+        if (updates.drain(uiBuilder::set) == 0) {
+            return;
+        }
+        CustomPage packet = new CustomPage(PAGE_KEY, false, false, CustomPageLifetime.CanDismiss,
+            uiBuilder.getCommands(), new UIEventBuilder().getEvents());
+
+        PluginMetrics.Counter.ENCHANT_BROADCASTS.increment();
+        Iterator<EnchantTablePanel> it = viewers.iterator();
+        while (it.hasNext()) {
+            EnchantTablePanel panel = it.next();
+            if (!panel.sendShared(packet)) {
+                // Cerrado o desconectado sin pasar por onDismiss()
+                it.remove();
+                continue;
+            }
+            PluginMetrics.Counter.ENCHANT_BROADCAST_SENDS.increment();
+        }
+        if (viewers.isEmpty()) {
+            MODELS.remove(key, this);
+        }
+        PluginMetrics.Timer.ENCHANT_UPDATE.record(System.nanoTime() - start);
+    }
+}
@@ -4,12 +4,15 @@
  * ============================================================
  *
  * Esta es la pagina de UI que se abre al pulsar la tecla F
- * en el Enchant Table. Tiene un boton que envia un mensaje
- * al chat del jugador.
+ * en el Enchant Table. Muestra las ofertas de encantamiento para
+ * el item que el jugador tiene en la mano (EnchantingEngine) y
+ * tiene un boton que envia un mensaje al chat del jugador.
  *
  * CICLO DE VIDA:
- *   1. build()           -> Carga el archivo .ui y vincula botones a eventos
+ *   0. prepareTemplate() -> (una vez, en setup) prepara .ui + bindings
+ *   1. build()           -> Aplica la plantilla compartida al abrir
  *   2. handleDataEvent() -> Se ejecuta cuando el jugador pulsa un boton
+ *                           (recibe el EventActionData ya decodificado)
  *   3. onDismiss()       -> Se ejecuta al cerrar con ESC
  *
  * CONCEPTOS CLAVE:
@@ -17,41 +20,91 @@
  *   - EventActionData: el CODEC que serializa los datos del evento
  *   - UICommandBuilder: permite modificar la UI desde el servidor
  *   - sendUpdate(): envia cambios de UI al cliente en tiempo real
+ *   - UIUpdateBuffer: agrupa los cambios y llama a sendUpdate()
+ *     como mucho una vez por tick
+ *   - EnchantingEngine: las tablas de ofertas ya estan calculadas,
+ *     pedir ofertas en cada refresco es muy barato
+ *   - EnchantTableModel: lo que es de la MESA (no del jugador) se
+ *     calcula una vez y se envia a todos los paneles de esa mesa
  *
  * ============================================================
  */
 package com.scarforges.tutorialblock.ui;
 
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.math.vector.Vector3i;
+import com.hypixel.hytale.protocol.packets.interface_.CustomPage;
 import com.hypixel.hytale.protocol.packets.interface_.CustomPageLifetime;
-import com.hypixel.hytale.protocol.packets.interface_.CustomUIEventBindingType;
 import com.hypixel.hytale.protocol.packets.interface_.Page;
 import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.entity.entities.player.pages.InteractiveCustomUIPage;
+import com.hypixel.hytale.server.core.inventory.ItemStack;
 import com.hypixel.hytale.server.core.ui.builder.EventData;
 import com.hypixel.hytale.server.core.ui.builder.UICommandBuilder;
 import com.hypixel.hytale.server.core.ui.builder.UIEventBuilder;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
-import com.hypixel.hytale.server.core.Message;
 
-import java.awt.Color;
+import com.scarforges.tutorialblock.TutorialBlockPlugin;
+import com.scarforges.tutorialblock.enchant.EnchantOffer;
+import com.scarforges.tutorialblock.enchant.EnchantingEngine;
+import com.scarforges.tutorialblock.message.Messages;
+import com.scarforges.tutorialblock.metrics.PluginMetrics;
+import com.scarforges.tutorialblock.session.SessionStore;
+
+import java.util.List;
+import java.util.UUID;
 import java.util.logging.Logger;
 
 public class EnchantTablePanel extends InteractiveCustomUIPage<EventActionData> {
 
     private static final Logger LOGGER = Logger.getLogger("Tutorial-EnchantUI");
     private static final String UI_PATH = "Pages/EnchantTable/EnchantTablePanel.ui";
+    private static final String STATUS_TEXT = "#StatusText.Text";
+
+    // Una Label por oferta en el .ui (#Offer1, #Offer2, #Offer3)
+    private static final String[] OFFER_TEXT = {"#Offer1.Text", "#Offer2.Text", "#Offer3.Text"};
+
+    // Layout + bindings compartidos por todos los paneles (ver prepareTemplate)
+    private static volatile UITemplate template;
 
     private final PlayerRef playerRef;
-    private int clickCount = 0;
+    private String itemId;
+    private final int blockX;
+    private final int blockY;
+    private final int blockZ;
+    private final UIUpdateBuffer updates = new UIUpdateBuffer();
+    private EnchantTableModel model;
+    private boolean dismissed = false;
 
-    public EnchantTablePanel(PlayerRef playerRef) {
+    // itemId: el item que el jugador tenia en la mano al abrir (null = mano vacia);
+    // cada refresco lo vuelve a leer
+    // block: posicion de la mesa (para compartir su EnchantTableModel)
+    public EnchantTablePanel(PlayerRef playerRef, String itemId, Vector3i block) {
         super(playerRef, CustomPageLifetime.CanDismiss, EventActionData.CODEC);
         this.playerRef = playerRef;
+        this.itemId = itemId;
+        this.blockX = block.getX();
+        this.blockY = block.getY();
+        this.blockZ = block.getZ();
+    }
+
+    // ============================================================
+    // PREPARE TEMPLATE: Se llama UNA vez desde TutorialBlockPlugin.setup().
+    // Construye el layout y los bindings de los botones, que son
+    // iguales para todos los jugadores.
+    // ============================================================
+    public static UITemplate prepareTemplate() {
+        UITemplate prepared = UITemplate.builder(UI_PATH)
+            // Boton "SAY HELLO" -> envia ActionId: "HELLO" al servidor
+            .bind("#BtnHello", new EventData().append("ActionId", EnchantAction.HELLO.id()))
+            // Boton de cerrar -> envia ActionId: "CLOSE"
+            .bind("#CloseButton", new EventData().append("ActionId", EnchantAction.CLOSE.id()))
+            .build();
+        template = prepared;
+        return prepared;
     }
 
     // ============================================================
@@ -61,62 +114,193 @@ public class EnchantTablePanel extends InteractiveCustomUIPage<EventActionData>
     public void build(Ref<EntityStore> ref, UICommandBuilder uiBuilder,
                       UIEventBuilder eventBuilder, Store<EntityStore> store) {
 
-        // Cargar el layout de la UI desde el archivo .ui
-        uiBuilder.append(UI_PATH);
+        layout(uiBuilder, eventBuilder, updates, itemId, enchantSeed());
 
-        // Vincular el boton "SAY HELLO" -> envia ActionId: "HELLO" al servidor
-        eventBuilder.addEventBinding(
-            CustomUIEventBindingType.Activating,
-            "#BtnHello",
-            new EventData().append("ActionId", "HELLO")
-        );
+        // Estado compartido de la mesa (jugadores, saludos...)
+        World world = store.getExternalData().getWorld();
+        model = EnchantTableModel.of(world, blockX, blockY, blockZ);
+        model.join(this, uiBuilder, world);
+
+        if (TutorialBlockPlugin.verbose()) {
+            LOGGER.info("EnchantTablePanel abierto para " + playerRef.getUsername());
+        }
+    }
+
+    // ============================================================
+    // LAYOUT: Lo que build() escribe en los builders y no depende de
+    // la entidad ni del mundo: plantilla, ofertas y el estado inicial
+    // del UIUpdateBuffer. Publico para PanelBuildBenchmark.
+    // ============================================================
+    public static void layout(UICommandBuilder uiBuilder, UIEventBuilder eventBuilder,
+                              UIUpdateBuffer updates, String itemId, long seed) {
+        // Layout + bindings preconstruidos (por si setup() no lo preparo, se crea ahora)
+        UITemplate shared = template;
+        if (shared == null) {
+            shared = prepareTemplate();
+        }
+        shared.apply(uiBuilder, eventBuilder);
 
-        // Vincular el boton de cerrar -> envia ActionId: "CLOSE"
-        eventBuilder.addEventBinding(
-            CustomUIEventBindingType.Activating,
-            "#CloseButton",
-            new EventData().append("ActionId", "CLOSE")
-        );
+        // El cliente acaba de recibir el .ui entero: #StatusText esta vacio
+        updates.reset();
+        updates.assume(STATUS_TEXT, "");
 
-        LOGGER.info("EnchantTablePanel abierto para " + playerRef.getUsername());
+        // Ofertas del item en la mano: van en el mismo paquete que el layout
+        String[] labels = offerLabels(itemId, seed);
+        for (int i = 0; i < OFFER_TEXT.length; i++) {
+            uiBuilder.set(OFFER_TEXT[i], labels[i]);
+            updates.assume(OFFER_TEXT[i], labels[i]);
+        }
     }
 
     // ============================================================
-    // HANDLE DATA EVENT: Se ejecuta cada vez que el jugador
-    // pulsa un boton en la UI. Recibe un JSON con el ActionId.
+    // HANDLE DATA EVENT: Se ejecuta cada vez que el jugador pulsa un
+    // boton en la UI. InteractiveCustomUIPage ya decodifico el payload
+    // con EventActionData.CODEC: el ActionId llega convertido en
+    // EnchantAction (null = accion desconocida o ausente).
     // ============================================================
-    public void handleDataEvent(Ref<EntityStore> ref, Store<EntityStore> store, String rawData) {
-        // Parsear el JSON que viene del evento de la UI
-        JsonObject json = JsonParser.parseString(rawData).getAsJsonObject();
-        String actionId = json.get("ActionId").getAsString();
-
-        switch (actionId) {
-            case "HELLO":
-                clickCount++;
-
-                // Enviar mensaje al chat usando la API de Hytale (Message.join + .color)
-                playerRef.sendMessage(Message.join(
-                    Message.raw("[Mesa Tutorial] ").color(Color.ORANGE),
-                    Message.raw("Hola " + playerRef.getUsername()).color(Color.CYAN),
-                    Message.raw("! Has pulsado " + clickCount + " vez/veces.").color(Color.WHITE)
-                ));
-
-                // Actualizar el texto de la UI en tiempo real con sendUpdate()
-                UICommandBuilder uiBuilder = new UICommandBuilder();
-                UIEventBuilder eventBuilder = new UIEventBuilder();
-                uiBuilder.set("#StatusText.Text", "Has pulsado " + clickCount + " vez/veces!");
-                sendUpdate(uiBuilder, eventBuilder, false);
+    @Override
+    public void handleDataEvent(Ref<EntityStore> ref, Store<EntityStore> store, EventActionData data) {
+        EnchantAction action = data.action;
+        if (action == null) {
+            PluginMetrics.Counter.PANEL_EVENTS_REJECTED.increment();
+            return;
+        }
+
+        long start = System.nanoTime();
+        PluginMetrics.Counter.PANEL_EVENTS.increment();
+
+        switch (action) {
+            case HELLO:
+                // El contador vive en SessionStore: se mantiene entre aperturas y reinicios
+                // (sin sesiones, p.ej. si no se pudo abrir el archivo, solo contamos este click)
+                SessionStore sessions = TutorialBlockPlugin.getInstance().getSessions();
+                int clickCount = sessions != null
+                    ? sessions.increment(playerRef.getUuid(), SessionStore.Counter.HELLO_CLICKS)
+                    : 1;
+
+                // Enviar mensaje al chat: plantilla del catalogo, solo se
+                // rellenan el nombre y los clicks (los tramos fijos ya estan hechos)
+                if (sessions == null || !sessions.preference(playerRef.getUuid(), SessionStore.Preference.QUIET)) {
+                    playerRef.sendMessage(Messages.message(Messages.Key.ENCHANT_HELLO,
+                        playerRef.getUsername(), clickCount));
+                }
+
+                // Actualizar el texto de la UI: se agrupa con el resto de
+                // clicks de este tick y se envia en un solo sendUpdate()
+                updates.set(STATUS_TEXT, Messages.text(Messages.Key.ENCHANT_STATUS, clickCount));
+
+                // Refrescar ofertas con el item que tiene AHORA en la mano
+                // (pudo cambiarlo con la UI abierta): si no han cambiado,
+                // el buffer no las reenvia
+                itemId = heldItemId(ref, store);
+                String[] labels = offerLabels(itemId, enchantSeed());
+                for (int i = 0; i < OFFER_TEXT.length; i++) {
+                    updates.set(OFFER_TEXT[i], labels[i]);
+                }
+
+                World world = store.getExternalData().getWorld();
+                updates.schedule(world, this::flushUpdates);
+
+                // Lo que ven TODOS los jugadores de esta mesa
+                if (model != null) {
+                    model.hello(playerRef.getUsername(), world);
+                }
                 break;
 
-            case "CLOSE":
+            case CLOSE:
                 // Cerrar la UI estableciendo la pagina a None
                 Player player = (Player) store.getComponent(ref, Player.getComponentType());
-                player.getPageManager().setPage(ref, store, Page.None);
+                if (player != null) {
+                    player.getPageManager().setPage(ref, store, Page.None);
+                }
+                leaveModel(store.getExternalData().getWorld());
                 break;
         }
+
+        PluginMetrics.Timer.PANEL_EVENT.record(System.nanoTime() - start);
+    }
+
+    // ============================================================
+    // OFFER LABELS: Texto de cada Label de oferta. La semilla es la
+    // del jugador en SessionStore (derivada del UUID, no cambia):
+    // mismo jugador + mismo item = mismas ofertas.
+    // ============================================================
+    private static String[] offerLabels(String itemId, long seed) {
+        String[] labels = new String[OFFER_TEXT.length];
+        List<EnchantOffer> offers = EnchantingEngine.get().offers(itemId, seed, OFFER_TEXT.length);
+
+        for (int i = 0; i < labels.length; i++) {
+            if (i < offers.size()) {
+                labels[i] = offers.get(i).label();
+            } else {
+                labels[i] = i == 0 ? Messages.text(Messages.Key.ENCHANT_NOT_ENCHANTABLE) : "";
+            }
+        }
+        return labels;
+    }
+
+    // Item en la mano del jugador ahora mismo (null = mano vacia)
+    private static String heldItemId(Ref<EntityStore> ref, Store<EntityStore> store) {
+        Player player = store.getComponent(ref, Player.getComponentType());
+        ItemStack held = player != null ? player.getInventory().getItemInHand() : null;
+        return held != null && !held.isEmpty() ? held.getItemId() : null;
+    }
+
+    private long enchantSeed() {
+        UUID uuid = playerRef.getUuid();
+        SessionStore sessions = TutorialBlockPlugin.getInstance().getSessions();
+        return sessions != null
+            ? sessions.enchantSeed(uuid)
+            : uuid.getMostSignificantBits() ^ uuid.getLeastSignificantBits();
+    }
+
+    // ============================================================
+    // FLUSH UPDATES: Se ejecuta en el hilo del mundo, una vez por
+    // tick como maximo. Un solo paquete con todos los cambios.
+    // ============================================================
+    private void flushUpdates() {
+        if (dismissed) {
+            updates.reset();
+            return;
+        }
+
+        UICommandBuilder uiBuilder = new UICommandBuilder();
+        if (updates.drain(uiBuilder::set) > 0) {
+            sendUpdate(uiBuilder, new UIEventBuilder(), false);
+        }
+    }
+
+    // ============================================================
+    // SEND SHARED: El EnchantTableModel entrega el mismo paquete (ya
+    // serializado) a todos los paneles de la mesa: lo mismo que
+    // sendUpdate(), sin volver a construirlo. false = este panel ya
+    // no esta.
+    // ============================================================
+    boolean sendShared(CustomPage packet) {
+        Ref<EntityStore> ref = playerRef.getReference();
+        if (dismissed || ref == null || !ref.isValid()) {
+            return false;
+        }
+        Player player = ref.getStore().getComponent(ref, Player.getComponentType());
+        if (player == null) {
+            return false;
+        }
+        player.getPageManager().updateCustomPage(packet);
+        return true;
+    }
+
+    private void leaveModel(World world) {
+        if (model != null) {
+            model.leave(this, world);
+            model = null;
+        }
     }
 
     public void onDismiss(Ref<EntityStore> ref, Store<EntityStore> store) {
-        LOGGER.info("Panel cerrado para " + playerRef.getUsername());
+        dismissed = true;
+        leaveModel(store.getExternalData().getWorld());
+        if (TutorialBlockPlugin.verbose()) {
+            LOGGER.info("Panel cerrado para " + playerRef.getUsername());
+        }
     }
 }
@@ -13,6 +13,9 @@
  * Es un patron comun: siempre necesitas una clase EventData
  * con su CODEC para que InteractiveCustomUIPage funcione.
  *
+ * El CODEC lee "ActionId" y lo convierte directamente en un
+ * EnchantAction, asi el panel nunca tiene que parsear JSON.
+ *
  * ============================================================
  */
 package com.scarforges.tutorialblock.ui;
@@ -23,25 +26,30 @@ import com.hypixel.hytale.codec.builder.BuilderCodec;
 
 public class EventActionData {
 
-    // El JSON crudo que llega del evento de la UI
-    public String actionDataJson;
+    // El ActionId tal cual llega del evento de la UI (null si falta)
+    public String actionId;
+
+    // La accion ya resuelta (null si falta o no es conocida)
+    public EnchantAction action;
 
     public EventActionData() {
-        this.actionDataJson = "";
     }
 
     // ============================================================
     // CODEC: Define como serializar/deserializar los datos del evento.
-    // "ActionDataJson" es la clave que Hytale usa para el payload.
+    // "ActionId" es la misma clave que usan los EventData de build().
     // BuilderCodec es el patron estandar para registrar tipos custom.
     // ============================================================
     @SuppressWarnings("unchecked")
     public static final BuilderCodec<EventActionData> CODEC = ((BuilderCodec.Builder<EventActionData>)
         BuilderCodec.builder(EventActionData.class, EventActionData::new)
             .append(
-                new KeyedCodec<>("ActionDataJson", Codec.STRING),
-                (obj, val) -> obj.actionDataJson = val,
-                obj -> obj.actionDataJson
+                new KeyedCodec<>("ActionId", Codec.STRING),
+                (obj, val) -> {
+                    obj.actionId = val;
+                    obj.action = EnchantAction.fromId(val);
+                },
+                obj -> obj.actionId
             )
             .add())
         .build();
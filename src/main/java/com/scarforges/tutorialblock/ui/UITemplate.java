@@ -0,0 +1,91 @@
+/*
+ * ============================================================
+ * TUTORIAL: UITemplate - Layout + bindings preconstruidos
+ * ============================================================
+ *
+ * La parte estatica de una pagina (el archivo .ui y los botones
+ * vinculados a eventos) es igual para todos los jugadores.
+ * En vez de crear los EventData en cada build(), se construyen
+ * UNA vez en setup() y cada panel solo hace apply():
+ *
+ *   UITemplate t = UITemplate.builder("Pages/X/X.ui")
+ *       .bind("#BtnHello", new EventData().append("ActionId", "HELLO"))
+ *       .build();
+ *
+ *   // En build() del panel:
+ *   t.apply(uiBuilder, eventBuilder);
+ *   uiBuilder.set(...);   // solo los campos propios del jugador
+ *
+ * Los EventData compartidos NO se deben modificar despues de build().
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.ui;
+
+import com.hypixel.hytale.protocol.packets.interface_.CustomUIEventBindingType;
+import com.hypixel.hytale.server.core.ui.builder.EventData;
+import com.hypixel.hytale.server.core.ui.builder.UICommandBuilder;
+import com.hypixel.hytale.server.core.ui.builder.UIEventBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class UITemplate {
+
+    private final String uiPath;
+    private final CustomUIEventBindingType[] types;
+    private final String[] selectors;
+    private final EventData[] data;
+
+    private UITemplate(String uiPath, List<CustomUIEventBindingType> types,
+                       List<String> selectors, List<EventData> data) {
+        this.uiPath = uiPath;
+        this.types = types.toArray(new CustomUIEventBindingType[0]);
+        this.selectors = selectors.toArray(new String[0]);
+        this.data = data.toArray(new EventData[0]);
+    }
+
+    public static Builder builder(String uiPath) {
+        return new Builder(uiPath);
+    }
+
+    public String getUiPath() {
+        return uiPath;
+    }
+
+    // Añade el layout y todos los bindings al builder de la pagina
+    public void apply(UICommandBuilder uiBuilder, UIEventBuilder eventBuilder) {
+        uiBuilder.append(uiPath);
+        for (int i = 0; i < selectors.length; i++) {
+            eventBuilder.addEventBinding(types[i], selectors[i], data[i]);
+        }
+    }
+
+    public static final class Builder {
+
+        private final String uiPath;
+        private final List<CustomUIEventBindingType> types = new ArrayList<>();
+        private final List<String> selectors = new ArrayList<>();
+        private final List<EventData> data = new ArrayList<>();
+
+        private Builder(String uiPath) {
+            this.uiPath = uiPath;
+        }
+
+        // Binding por defecto: el boton se activa (click)
+        public Builder bind(String selector, EventData eventData) {
+            return bind(CustomUIEventBindingType.Activating, selector, eventData);
+        }
+
+        public Builder bind(CustomUIEventBindingType type, String selector, EventData eventData) {
+            types.add(type);
+            selectors.add(selector);
+            data.add(eventData);
+            return this;
+        }
+
+        public UITemplate build() {
+            return new UITemplate(uiPath, types, selectors, data);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * ============================================================
+ * TUTORIAL: UIUpdateBuffer - Actualizaciones de UI agrupadas
+ * ============================================================
+ *
+ * Llamar a sendUpdate() en cada click manda un paquete por click.
+ * Este buffer (uno por pagina) junta los cambios y los envia una
+ * sola vez por tick:
+ *
+ *   1. set(selector, valor)  -> guarda el cambio (el ultimo gana)
+ *   2. schedule(world, ...)  -> programa UN flush en el hilo del mundo
+ *   3. drain(uiBuilder::set) -> vuelca los cambios al UICommandBuilder
+ *
+ * Ademas recuerda lo que el cliente ya tiene: si un valor no cambia
+ * respecto al ultimo enviado, no se vuelve a mandar.
+ *
+ * Cualquier CustomUIPage del plugin puede usarlo. No depende de
+ * clases de Hytale (el World se pasa como Executor).
+ *
+ * ============================================================
+ */
+package com.scarforges.tutorialblock.ui;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+
+public final class UIUpdateBuffer {
+
+    // Cambios pendientes de enviar, en orden de llegada
+    private final Map<String, String> pending = new LinkedHashMap<>();
+
+    // Ultimo valor enviado (o conocido) por selector
+    private final Map<String, String> sent = new HashMap<>();
+
+    private boolean scheduled = false;
+
+    // Registra el valor que el cliente ya tiene (ej: el valor inicial del .ui)
+    public void assume(String selector, String value) {
+        sent.put(selector, value);
+    }
+
+    public void set(String selector, String value) {
+        if (value.equals(sent.get(selector))) {
+            // El cliente ya lo tiene: descartar cualquier cambio pendiente
+            pending.remove(selector);
+            return;
+        }
+        pending.put(selector, value);
+    }
+
+    // Valor mas reciente (pendiente o ya enviado), null si no hay ninguno
+    public String current(String selector) {
+        String value = pending.get(selector);
+        return value != null ? value : sent.get(selector);
+    }
+
+    public boolean isDirty() {
+        return !pending.isEmpty();
+    }
+
+    // Programa un flush si hay cambios y no hay ya uno programado.
+    // Con el World como executor, todos los set() del mismo tick
+    // acaban en un unico paquete.
+    public void schedule(Executor executor, Runnable flush) {
+        if (scheduled || pending.isEmpty()) {
+            return;
+        }
+        scheduled = true;
+        executor.execute(flush);
+    }
+
+    // Vuelca los cambios pendientes y los marca como enviados.
+    // Devuelve cuantos se volcaron (0 = no hace falta sendUpdate()).
+    public int drain(BiConsumer<String, String> out) {
+        scheduled = false;
+        int count = 0;
+        for (Map.Entry<String, String> entry : pending.entrySet()) {
+            out.accept(entry.getKey(), entry.getValue());
+            sent.put(entry.getKey(), entry.getValue());
+            count++;
+        }
+        pending.clear();
+        return count;
+    }
+
+    // Olvida todo (ej: la pagina se reconstruye con build())
+    public void reset() {
+        pending.clear();
+        sent.clear();
+        scheduled = false;
+    }
+}